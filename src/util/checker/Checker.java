@@ -14,15 +14,12 @@ public class Checker {
     }
 
     public static boolean numberCheck(String number, int range) {
-        Pattern pt = Pattern.compile("[0-9]+");
-        return stringCheck(number, pt) &&
-                numberCheck(Integer.parseInt(number), 0, range);
+        return numberCheck(number, 0, range);
     }
 
     public static boolean numberCheck(String number, int fromRange, int toRange) {
-        Pattern pt = Pattern.compile("[0-9]+");
-        return stringCheck(number, pt) &&
-                numberCheck(Integer.parseInt(number), fromRange, toRange);
+        //数字のみで構成され、範囲内の整数かを1回の走査で判別します
+        return NumberValidator.parse(number, fromRange, toRange) != NumberValidator.INVALID;
     }
 
     public static boolean stringCheck(String sentence, Pattern format) {
@@ -36,7 +33,12 @@ public class Checker {
         return false;
     }
 
+    public static boolean stringCheck(String sentence, KeywordSet formats) {
+        //あらかじめ作成したKeywordSetで、キーワードの数によらず文字列の長さに比例する時間で判別します
+        return formats.matches(sentence);
+    }
+
     public static boolean isNumber(String text) {
-        return text.matches("[0-9]+");
+        return NumberValidator.isDigits(text);
     }
 }
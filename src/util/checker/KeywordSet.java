@@ -0,0 +1,261 @@
+package util.checker;
+
+import java.util.Arrays;
+
+/* 大文字と小文字を区別せずに、文字列がキーワードのいずれかと一致するかを判別するための
+ * キーワードの集合です。
+ *
+ * Checker.stringCheck(String, String...) はキーワードをひとつずつ equalsIgnoreCase で
+ * 比較するので、キーワードの数に比例する時間がかかります。
+ * KeywordSet は作成時に大文字と小文字をそろえたキーワードのハッシュ表を作るので、
+ * matches はキーワードの数によらず、文字列の長さに比例する時間で判別します。
+ * 判別の途中で文字列を生成することはありません。
+ *
+ * withSubstringSearch で作成すると、文章の中にキーワードのいずれかが含まれているかを
+ * Aho-Corasick法で判別する occursIn も使用できます。
+ * こちらもキーワードの数によらず、文章の長さに比例する時間で判別します。
+ *
+ * 作成した KeywordSet は不変なので、複数のスレッドから何度でも使い回すことができます。
+ */
+public final class KeywordSet {
+    // 大文字と小文字をそろえたキーワードのハッシュ表
+    private final String[] keys;
+    private final int[] hashes;
+    private final int mask;
+    private final int size;
+
+    // 部分一致の判別に使うオートマトン (作成していなければnull)
+    private final Automaton automaton;
+
+    private KeywordSet(String[] keywords, boolean substring) {
+        int slots = Integer.highestOneBit(Math.max(1, keywords.length) * 2 - 1) << 1;
+        this.keys = new String[slots];
+        this.hashes = new int[slots];
+        this.mask = slots - 1;
+
+        int count = 0;
+        for (String keyword : keywords) {
+            String folded = fold(keyword);
+            int h = hash(folded);
+            int i = h & mask;
+            while (keys[i] != null && !(hashes[i] == h && keys[i].equals(folded))) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == null) {
+                keys[i] = folded;
+                hashes[i] = h;
+                count++;
+            }
+        }
+        this.size = count;
+        // keys はハッシュ表なので、空きの位置のnullは Automaton で読み飛ばす
+        this.automaton = substring ? new Automaton(keys) : null;
+    }
+
+    // 完全一致の判別に使う KeywordSet を作成します
+    public static KeywordSet of(String... keywords) {
+        return new KeywordSet(keywords, false);
+    }
+
+    // 完全一致に加え、occursIn による部分一致の判別にも使う KeywordSet を作成します
+    public static KeywordSet withSubstringSearch(String... keywords) {
+        return new KeywordSet(keywords, true);
+    }
+
+    // 文字列全体がキーワードのいずれかと大文字小文字を区別せずに一致するかを判別します
+    public boolean matches(CharSequence s) {
+        int len = s.length();
+        int h = 0;
+        for (int i = 0; i < len; i++) {
+            h = 31 * h + fold(s.charAt(i));
+        }
+        h = spread(h);
+        for (int i = h & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == h && equalsFolded(keys[i], s)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 文章の中にキーワードのいずれかが大文字小文字を区別せずに含まれているかを判別します
+    public boolean occursIn(CharSequence text) {
+        if (automaton == null) {
+            throw new IllegalStateException("Substring search is not enabled: use withSubstringSearch");
+        }
+        return automaton.occursIn(text);
+    }
+
+    // 重複を除いたキーワードの数を返します
+    public int size() {
+        return size;
+    }
+
+    /* String.equalsIgnoreCase と同じく、大文字に変換してから小文字に変換した文字で比較する */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static String fold(String s) {
+        char[] folded = new char[s.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(s.charAt(i));
+        }
+        return new String(folded);
+    }
+
+    private static int hash(String folded) {
+        return spread(folded.hashCode());
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equalsFolded(String folded, CharSequence s) {
+        if (folded.length() != s.length()) {
+            return false;
+        }
+        for (int i = 0; i < folded.length(); i++) {
+            if (folded.charAt(i) != fold(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* 大文字と小文字をそろえたキーワードのAho-Corasickオートマトンです。
+     *
+     * 遷移は (状態 << 16 | 文字) をキーとするハッシュ表に保持するので、
+     * 文字の種類が多くても状態ごとに配列を持つ必要がありません。
+     */
+    private static final class Automaton {
+        private static final long EMPTY = -1L;
+
+        private final long[] edgeKeys;
+        private final int[] edgeTargets;
+        private final int edgeMask;
+        // 一致に失敗したときに移る状態
+        private final int[] fail;
+        // その状態に達したときにいずれかのキーワードが現れているか
+        private final boolean[] output;
+
+        private Automaton(String[] keywords) {
+            int total = 0;
+            for (String k : keywords) {
+                if (k != null) {
+                    total += k.length();
+                }
+            }
+            int slots = Integer.highestOneBit(Math.max(1, total) * 2 - 1) << 1;
+            edgeKeys = new long[slots];
+            Arrays.fill(edgeKeys, EMPTY);
+            edgeTargets = new int[slots];
+            edgeMask = slots - 1;
+
+            // トライ木を作る。状態0が根
+            int[] parent = new int[total + 1];
+            char[] label = new char[total + 1];
+            int[] depth = new int[total + 1];
+            output = new boolean[total + 1];
+            int nodes = 1;
+            for (String k : keywords) {
+                if (k == null) {
+                    continue;
+                }
+                int state = 0;
+                for (int i = 0; i < k.length(); i++) {
+                    char c = k.charAt(i);
+                    int next = next(state, c);
+                    if (next < 0) {
+                        next = nodes++;
+                        parent[next] = state;
+                        label[next] = c;
+                        depth[next] = depth[state] + 1;
+                        put(state, c, next);
+                    }
+                    state = next;
+                }
+                output[state] = true;
+            }
+
+            // 浅い状態から順に失敗時の遷移先を求める
+            int maxDepth = 0;
+            for (int n = 0; n < nodes; n++) {
+                maxDepth = Math.max(maxDepth, depth[n]);
+            }
+            int[] start = new int[maxDepth + 2];
+            for (int n = 0; n < nodes; n++) {
+                start[depth[n] + 1]++;
+            }
+            for (int d = 0; d <= maxDepth; d++) {
+                start[d + 1] += start[d];
+            }
+            int[] order = new int[nodes];
+            for (int n = 0; n < nodes; n++) {
+                order[start[depth[n]]++] = n;
+            }
+
+            fail = new int[nodes];
+            for (int n : order) {
+                if (depth[n] <= 1) {
+                    continue;
+                }
+                char c = label[n];
+                int f = fail[parent[n]];
+                int next;
+                while ((next = next(f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[n] = next < 0 ? 0 : next;
+                output[n] |= output[fail[n]];
+            }
+        }
+
+        private boolean occursIn(CharSequence text) {
+            if (output[0]) {
+                // 空のキーワードはどの文章にも含まれる
+                return true;
+            }
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = fold(text.charAt(i));
+                int next;
+                while ((next = next(state, c)) < 0 && state != 0) {
+                    state = fail[state];
+                }
+                state = next < 0 ? 0 : next;
+                if (output[state]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int next(int state, char c) {
+            long key = (long) state << 16 | c;
+            for (int i = slot(key); ; i = (i + 1) & edgeMask) {
+                if (edgeKeys[i] == key) {
+                    return edgeTargets[i];
+                }
+                if (edgeKeys[i] == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        private void put(int state, char c, int target) {
+            long key = (long) state << 16 | c;
+            int i = slot(key);
+            while (edgeKeys[i] != EMPTY) {
+                i = (i + 1) & edgeMask;
+            }
+            edgeKeys[i] = key;
+            edgeTargets[i] = target;
+        }
+
+        private int slot(long key) {
+            return (int) (key * 0x9E3779B97F4A7C15L >>> 32) & edgeMask;
+        }
+    }
+}
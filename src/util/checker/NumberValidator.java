@@ -0,0 +1,70 @@
+package util.checker;
+
+/* 数字のみで構成された文字列が、範囲 (fromRange, toRange) の整数を表しているかを検査します。
+ * 範囲の両端は含みません。Checker.numberCheck(String, int, int) と同じ条件です。
+ *
+ * 正規表現や Integer.parseInt を使わず、1回の走査で書式と範囲を検査します。
+ * 範囲を超えた時点で走査を打ち切るので、桁数の多い文字列でもオーバーフローしません。
+ * 作成した NumberValidator は不変なので、何度でも使い回すことができます。
+ */
+public final class NumberValidator {
+    // 検査に失敗したことを表す値。数字のみの文字列は負の値にならないので重ならない
+    public static final int INVALID = -1;
+
+    private final int fromRange;
+    private final int toRange;
+
+    public NumberValidator(int fromRange, int toRange) {
+        this.fromRange = fromRange;
+        this.toRange = toRange;
+    }
+
+    // 1 ~ range-1 までの整数を受け付ける NumberValidator を返します
+    public static NumberValidator of(int range) {
+        return new NumberValidator(0, range);
+    }
+
+    public boolean test(CharSequence number) {
+        return parse(number) != INVALID;
+    }
+
+    // 範囲内の整数であればその値を、そうでなければ INVALID を返します
+    public int parse(CharSequence number) {
+        return parse(number, fromRange, toRange);
+    }
+
+    static int parse(CharSequence number, int fromRange, int toRange) {
+        int len = number.length();
+        if (len == 0) {
+            return INVALID;
+        }
+        long value = 0;
+        for (int i = 0; i < len; i++) {
+            int digit = number.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+            // 上限以上になったら残りの桁に関わらず範囲外。long型があふれる前に打ち切る
+            if (value >= toRange) {
+                return INVALID;
+            }
+        }
+        return value > fromRange ? (int) value : INVALID;
+    }
+
+    // 空でなく、すべての文字が '0' ~ '9' であるかを判別します
+    static boolean isDigits(CharSequence text) {
+        int len = text.length();
+        if (len == 0) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,271 @@
+package util.input;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * {@link InputScanner}の読み込みを専用のスレッドで行い、
+ * 結果を{@link CompletableFuture}で返却するクラスです。
+ *
+ * <p>{@link InputScanner}の読み込みメソッドは、テキスト行が入力されるまで
+ * 呼び出し元のスレッドを停止させます。
+ * このクラスの読み込みメソッドは読み込みを依頼するだけですぐに復帰するので、
+ * タイマーや画面の描画を行うスレッドが入力を待って停止することはありません。</p>
+ *
+ * <p>読み込みはひとつの読み込み用スレッドで依頼された順に行われるので、
+ * 結果は必ず依頼した順に確定します。<br>
+ * 読み込みが開始される前に{@link CompletableFuture#cancel(boolean)}で取り消した場合、
+ * その読み込みは行われず、テキスト行は次の読み込みのために残されます。
+ * 既に開始されている読み込みは中断できないので、取り消した場合でも
+ * テキスト行は読み込まれ、その結果は破棄されます。</p>
+ *
+ * <p>{@link CompletableFuture#thenAccept(java.util.function.Consumer)}などで登録した処理は
+ * 読み込み用スレッドで実行されます。
+ * 画面の描画を行うスレッドなどで結果を処理する場合は、
+ * {@link CompletableFuture#thenAcceptAsync(java.util.function.Consumer, java.util.concurrent.Executor)}
+ * などで実行するスレッドを指定してください。</p>
+ *
+ * <pre>
+ *     AsyncInputScanner ais = new AsyncInputScanner(new InputScanner());
+ *     ais.readIntAsync("input > ", "error try again.")
+ *        .thenAccept(i {@code ->} System.out.println("read " + i));
+ *     // 入力を待たずに続きの処理を行う
+ * </pre>
+ *
+ * <p>このクラスに与えた{@link InputScanner}を、このクラスを経由せずに
+ * 他のスレッドから読み込んではいけません。</p>
+ *
+ * @author kazusa4418
+ * @see InputScanner
+ * @since 1.1
+ */
+public final class AsyncInputScanner implements AutoCloseable {
+    /* 読み込みの依頼。close()で取り消すためにFutureを保持する */
+    private final class Task<T> implements Runnable {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Function<InputScanner, ? extends T> read;
+
+        private Task(Function<InputScanner, ? extends T> read) {
+            this.read = read;
+        }
+
+        @Override
+        public void run() {
+            /* 開始前に取り消された読み込みは行わない */
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(read.apply(scanner));
+            }
+            catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+    }
+
+    private final InputScanner scanner;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 与えられた{@link InputScanner}から読み込む{@code AsyncInputScanner}を作成します。
+     * 読み込み用スレッドはデーモンスレッドなので、JVMの終了を妨げることはありません。
+     *
+     * @param scanner 読み込みに使用する{@link InputScanner}
+     */
+    public AsyncInputScanner(InputScanner scanner) {
+        if (scanner == null) {
+            throw new NullPointerException();
+        }
+        this.scanner = scanner;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "InputScanner-async");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * 任意の読み込みを読み込み用スレッドで行います。
+     *
+     * <p>他の読み込みメソッドはすべてこのメソッドを使用しています。
+     * 複数の値を続けて読み込むなど、ひとまとまりで行いたい読み込みに使用します。</p>
+     *
+     * <pre>
+     *     CompletableFuture{@code <int[]>} f = ais.askAsync(is {@code ->} is.readIntArray("x y > "));
+     * </pre>
+     *
+     * @param read {@link InputScanner}から値を読み込む関数
+     * @param <T>  読み込む値の型
+     * @exception RejectedExecutionException {@link #close()}の後に呼び出されたとき
+     *
+     * @return     読み込んだ値で完了する{@link CompletableFuture}
+     */
+    public <T> CompletableFuture<T> askAsync(Function<InputScanner, ? extends T> read) {
+        if (read == null) {
+            throw new NullPointerException();
+        }
+        Task<T> task = new Task<>(read);
+        executor.execute(task);
+        return task.future;
+    }
+
+    /**
+     * {@link InputScanner#readStr()}を読み込み用スレッドで行います。
+     *
+     * @return 読み込んだテキスト行で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<String> readStrAsync() {
+        return askAsync(InputScanner::readStr);
+    }
+
+    /**
+     * {@link InputScanner#readStr(String)}を読み込み用スレッドで行います。
+     *
+     * @param msg 出力するメッセージ
+     * @return    読み込んだテキスト行で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<String> readStrAsync(String msg) {
+        return askAsync(is -> is.readStr(msg));
+    }
+
+    /**
+     * {@link InputScanner#readInt()}を読み込み用スレッドで行います。
+     * 構文解析できなかった場合、{@link CompletableFuture}は
+     * {@link IllegalDataFormatException}で例外的に完了します。
+     *
+     * @return 読み込んだ値で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<Integer> readIntAsync() {
+        return askAsync(InputScanner::readInt);
+    }
+
+    /**
+     * {@link InputScanner#readInt(String)}を読み込み用スレッドで行います。
+     *
+     * @param inMsg 出力するメッセージ
+     * @return      読み込んだ値で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<Integer> readIntAsync(String inMsg) {
+        return askAsync(is -> is.readInt(inMsg));
+    }
+
+    /**
+     * {@link InputScanner#readInt(String, String)}を読み込み用スレッドで行います。
+     *
+     * @param inMsg  出力するメッセージ
+     * @param errMsg 構文解析できなかったときに出力するエラーメッセージ
+     * @return       読み込んだ値で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<Integer> readIntAsync(String inMsg, String errMsg) {
+        return askAsync(is -> is.readInt(inMsg, errMsg));
+    }
+
+    /**
+     * {@link InputScanner#readLong()}を読み込み用スレッドで行います。
+     *
+     * @return 読み込んだ値で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<Long> readLongAsync() {
+        return askAsync(InputScanner::readLong);
+    }
+
+    /**
+     * {@link InputScanner#readLong(String)}を読み込み用スレッドで行います。
+     *
+     * @param inMsg 出力するメッセージ
+     * @return      読み込んだ値で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<Long> readLongAsync(String inMsg) {
+        return askAsync(is -> is.readLong(inMsg));
+    }
+
+    /**
+     * {@link InputScanner#readLong(String, String)}を読み込み用スレッドで行います。
+     *
+     * @param inMsg  出力するメッセージ
+     * @param errMsg 構文解析できなかったときに出力するエラーメッセージ
+     * @return       読み込んだ値で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<Long> readLongAsync(String inMsg, String errMsg) {
+        return askAsync(is -> is.readLong(inMsg, errMsg));
+    }
+
+    /**
+     * {@link InputScanner#readDouble()}を読み込み用スレッドで行います。
+     *
+     * @return 読み込んだ値で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<Double> readDoubleAsync() {
+        return askAsync(InputScanner::readDouble);
+    }
+
+    /**
+     * {@link InputScanner#readDouble(String)}を読み込み用スレッドで行います。
+     *
+     * @param inMsg 出力するメッセージ
+     * @return      読み込んだ値で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<Double> readDoubleAsync(String inMsg) {
+        return askAsync(is -> is.readDouble(inMsg));
+    }
+
+    /**
+     * {@link InputScanner#readDouble(String, String)}を読み込み用スレッドで行います。
+     *
+     * @param inMsg  出力するメッセージ
+     * @param errMsg 構文解析できなかったときに出力するエラーメッセージ
+     * @return       読み込んだ値で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<Double> readDoubleAsync(String inMsg, String errMsg) {
+        return askAsync(is -> is.readDouble(inMsg, errMsg));
+    }
+
+    /**
+     * {@link InputScanner#readChar(String, String)}を読み込み用スレッドで行います。
+     *
+     * @param inMsg  出力するメッセージ
+     * @param errMsg 構文解析できなかったときに出力するエラーメッセージ
+     * @return       読み込んだ文字で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<Character> readCharAsync(String inMsg, String errMsg) {
+        return askAsync(is -> is.readChar(inMsg, errMsg));
+    }
+
+    /**
+     * {@link InputScanner#readBoolean(String, String)}を読み込み用スレッドで行います。
+     *
+     * @param inMsg  出力するメッセージ
+     * @param errMsg 構文解析できなかったときに出力するエラーメッセージ
+     * @return       読み込んだ値で完了する{@link CompletableFuture}
+     */
+    public CompletableFuture<Boolean> readBooleanAsync(String inMsg, String errMsg) {
+        return askAsync(is -> is.readBoolean(inMsg, errMsg));
+    }
+
+    /**
+     * 読み込み用スレッドを終了します。
+     *
+     * <p>まだ開始されていない読み込みはすべて取り消されます。
+     * 実行中の読み込みは中断されず、完了した時点で読み込み用スレッドが終了します。<br>
+     * このメソッドの後に読み込みを依頼すると{@link RejectedExecutionException}が送出されます。</p>
+     */
+    @Override
+    public void close() {
+        /* 実行中の読み込みに割り込むとIOExceptionとして扱われてしまうので、
+         * shutdownNow()は使用せず、開始されていない読み込みだけを取り除く */
+        List<Runnable> pending = new ArrayList<>();
+        executor.shutdown();
+        executor.getQueue().drainTo(pending);
+        for (Runnable r : pending) {
+            ((Task<?>) r).future.cancel(false);
+        }
+    }
+}
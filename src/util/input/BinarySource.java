@@ -0,0 +1,173 @@
+package util.input;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/* バイナリ形式の入力を読み込む入力元です。
+ *
+ * int値, long値はZigZag符号化された可変長整数(varint)、double値はビッグエンディアンの
+ * IEEE 754形式の8バイト、文字列はバイト数を表す符号なしの可変長整数に続くUTF-8のバイト列です。
+ * 文字列は1行としてもトークンとしても読み込むことができます。
+ *
+ * 値の先頭で入力の終わりに達している場合、文字列の読み込みはnullを返却し、
+ * 数値の読み込みはNoSuchElementExceptionを送出します。
+ * 値の途中で入力が終わっている場合や、可変長整数が長すぎる場合は
+ * IllegalDataFormatExceptionを送出します。
+ */
+final class BinarySource implements InputSource {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream in;
+    private final byte[] buf = new byte[BUFFER_SIZE];
+    /* 次に読み込む位置 */
+    private int pos;
+    /* バッファ内の有効なバイト数 */
+    private int limit;
+    /* 入力を待つ前にフラッシュする出力 */
+    private Flushable output;
+
+    BinarySource(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public CharSequence readLine() throws IOException {
+        if (!hasMore()) {
+            return null;
+        }
+        int length = readUnsignedInt();
+        if (length < 0) {
+            throw new IllegalDataFormatException("Illegal string length");
+        }
+        if (length <= limit - pos) {
+            String s = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+
+        /* バッファに収まっていない部分を読み込む */
+        byte[] bytes = new byte[length];
+        int n = limit - pos;
+        System.arraycopy(buf, pos, bytes, 0, n);
+        pos = limit;
+        while (n < length) {
+            int r = in.read(bytes, n, length - n);
+            if (r < 0) {
+                throw truncated();
+            }
+            n += r;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public CharSequence readToken() throws IOException {
+        return readLine();
+    }
+
+    @Override
+    public void setFlushable(Flushable output) {
+        this.output = output;
+    }
+
+    /* 次の値があればtrueを返却します。 */
+    boolean hasMore() throws IOException {
+        return pos < limit || fill();
+    }
+
+    int readInt() throws IOException {
+        int raw = readUnsignedInt();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    long readLong() throws IOException {
+        requireMore();
+        long raw = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = readByte();
+            /* 10バイト目は最下位ビットのみ有効 */
+            if (shift == 63 && (b & 0xfe) != 0) {
+                throw new IllegalDataFormatException("Varint too long");
+            }
+            raw |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                break;
+            }
+        }
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    double readDouble() throws IOException {
+        requireMore();
+        long bits;
+        if (limit - pos >= 8) {
+            bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = bits << 8 | (buf[pos + i] & 0xff);
+            }
+            pos += 8;
+        }
+        else {
+            bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = bits << 8 | (readByte() & 0xff);
+            }
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /* ZigZag符号化されていない32ビットの可変長整数を読み込みます。 */
+    private int readUnsignedInt() throws IOException {
+        requireMore();
+        int raw = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = readByte();
+            /* 5バイト目は下位4ビットのみ有効 */
+            if (shift == 28 && (b & 0xf0) != 0) {
+                throw new IllegalDataFormatException("Varint too long");
+            }
+            raw |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return raw;
+            }
+        }
+    }
+
+    private void requireMore() throws IOException {
+        if (!hasMore()) {
+            throw new NoSuchElementException("End of input");
+        }
+    }
+
+    /* 値の途中の1バイトを読み込みます。 */
+    private int readByte() throws IOException {
+        if (pos == limit && !fill()) {
+            throw truncated();
+        }
+        return buf[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        /* 入力を待つことになる場合のみフラッシュする */
+        if (output != null && in.available() == 0) {
+            output.flush();
+        }
+        int n;
+        do {
+            n = in.read(buf, 0, buf.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    private static IllegalDataFormatException truncated() {
+        return new IllegalDataFormatException("Truncated data");
+    }
+}
@@ -0,0 +1,51 @@
+package util.input;
+
+/* byte配列の一部分をASCII文字列としてコピーせずに参照するクラスです。
+ *
+ * 各バイトはそのままcharに拡張されるので、参照する範囲はASCII文字のみで
+ * 構成されているか、ISO-8859-1でエンコードされている必要があります。
+ * 参照先は set で何度でも差し替えることができます。
+ */
+final class ByteArraySequence implements CharSequence {
+    private byte[] array;
+    private int offset;
+    private int length;
+
+    void set(byte[] array, int offset, int length) {
+        this.array = array;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return (char) (array[offset + index] & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return toString(offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return toString(offset, length);
+    }
+
+    @SuppressWarnings("deprecation")
+    private String toString(int from, int count) {
+        /* ASCIIとISO-8859-1は上位バイトを0としてそのまま文字に変換できる */
+        return new String(array, 0, from, count);
+    }
+}
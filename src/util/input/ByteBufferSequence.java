@@ -0,0 +1,59 @@
+package util.input;
+
+import java.nio.ByteBuffer;
+
+/* ByteBufferの一部分をASCII文字列としてコピーせずに参照するクラスです。
+ *
+ * ダイレクトバッファやメモリーマップされたバッファのようにbyte配列を持たない
+ * バッファを参照するために使用します。
+ * 各バイトはそのままcharに拡張されるので、参照する範囲はASCII文字のみで
+ * 構成されているか、ISO-8859-1でエンコードされている必要があります。
+ * 参照先は set で何度でも差し替えることができます。
+ */
+final class ByteBufferSequence implements CharSequence {
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    void set(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return (char) (buffer.get(offset + index) & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return toString(offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return toString(offset, length);
+    }
+
+    @SuppressWarnings("deprecation")
+    private String toString(int from, int count) {
+        byte[] bytes = new byte[count];
+        ByteBuffer src = buffer.duplicate();
+        src.position(from);
+        src.get(bytes);
+        /* ASCIIとISO-8859-1は上位バイトを0としてそのまま文字に変換できる */
+        return new String(bytes, 0);
+    }
+}
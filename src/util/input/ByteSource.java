@@ -0,0 +1,154 @@
+package util.input;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/* バイト列から直接行やトークンを読み込む入力元の基底クラスです。
+ *
+ * 入力を文字にデコードせずにバイトのまま走査し、行の終端やトークンの区切りを探します。
+ * 見つかった行やトークンがASCII文字のみで構成されていれば、バッファを参照する
+ * CharSequenceをそのまま返却するので、数値の構文解析はデコードを経ずにバイトから直接行われます。
+ * ASCII以外のバイトを含む場合のみ、指定された文字セットでデコードした結果を返却します。
+ *
+ * 終端文字や空白文字をバイトのまま探すため、文字セットはASCIIと互換性のあるもの
+ * (UTF-8, Shift_JIS, EUC-JPなど)である必要があります。isAsciiCompatible で判定できます。
+ * ISO-8859-1では各バイトをそのままcharに拡張したものがデコード結果と一致するので、
+ * ASCII以外のバイトを含む場合もデコードせずにビューを返却できます。
+ *
+ * サブクラスはバッファと pos, limit を管理し、byteAt でバッファ内のバイトを、
+ * fill で続きのバイトを、sequence で行やトークンの内容を提供します。
+ */
+abstract class ByteSource implements InputSource {
+    /* 次に読み込む位置 */
+    int pos;
+    /* バッファ内の有効なバイトの終わり */
+    int limit;
+    /* 直前の行が "\r" で終わっていた場合、続く "\n" を読み飛ばす */
+    private boolean skipLF;
+
+    /* 未読のバイト [pos, limit) を保ったまま続きのバイトを読み込みます。
+     * 呼び出し後は buffer, pos, limit が更新されている可能性がありますが、
+     * 未読のバイト数が減ることはありません。
+     * ストリームの終わりに達していればfalseを返却します。
+     */
+    abstract boolean fill() throws IOException;
+
+    /* バッファ内の index の位置にあるバイトを返却します。 */
+    abstract byte byteAt(int index);
+
+    /* バッファ内の offset から length バイトの内容を返却します。
+     * ascii がtrueであれば範囲内はASCII文字のみで構成されているので、
+     * デコードせずにバッファを参照するビューを返却できます。
+     * そうでなければ文字セットでデコードした結果を返却します。
+     */
+    abstract CharSequence sequence(int offset, int length, boolean ascii);
+
+    @Override
+    public CharSequence readLine() throws IOException {
+        if (skipLF) {
+            if (pos == limit && !fill()) {
+                return null;
+            }
+            if (byteAt(pos) == '\n') {
+                pos++;
+            }
+            skipLF = false;
+        }
+
+        int scan = pos;
+        /* ASCII以外のバイトが含まれていれば負の値になる */
+        int bits = 0;
+        while (true) {
+            for (; scan < limit; scan++) {
+                byte b = byteAt(scan);
+                if (b == '\n' || b == '\r') {
+                    CharSequence line = sequence(pos, scan - pos, bits >= 0);
+                    pos = scan + 1;
+                    skipLF = b == '\r';
+                    return line;
+                }
+                bits |= b;
+            }
+
+            /* バッファ内に終端文字が見つからなかったので続きを読み込む */
+            int scanned = scan - pos;
+            if (!fill()) {
+                if (scanned == 0) {
+                    return null;
+                }
+                /* 終端文字のない最後の行 */
+                CharSequence line = sequence(pos, scanned, bits >= 0);
+                pos = limit;
+                return line;
+            }
+            scan = pos + scanned;
+        }
+    }
+
+    @Override
+    public CharSequence readToken() throws IOException {
+        skipLF = false;
+
+        /* 先頭の空白文字を読み飛ばす */
+        while (true) {
+            while (pos < limit && isWhitespace(byteAt(pos))) {
+                pos++;
+            }
+            if (pos < limit) {
+                break;
+            }
+            if (!fill()) {
+                return null;
+            }
+        }
+
+        int scan = pos;
+        int bits = 0;
+        while (true) {
+            for (; scan < limit; scan++) {
+                byte b = byteAt(scan);
+                if (isWhitespace(b)) {
+                    CharSequence token = sequence(pos, scan - pos, bits >= 0);
+                    pos = scan;
+                    return token;
+                }
+                bits |= b;
+            }
+
+            int scanned = scan - pos;
+            if (!fill()) {
+                CharSequence token = sequence(pos, scanned, bits >= 0);
+                pos = limit;
+                return token;
+            }
+            scan = pos + scanned;
+        }
+    }
+
+    /* 文字セットがASCIIと互換性があるかを判定します。
+     * ASCII文字のエンコードとデコードが、いずれもバイトをそのまま文字に対応させる結果と
+     * 一致する場合に互換性があるとみなします。UTF-16やISO-2022-JPなどは互換性がありません。
+     */
+    static boolean isAsciiCompatible(Charset charset) {
+        byte[] bytes = new byte[128];
+        char[] chars = new char[128];
+        for (int i = 0; i < 128; i++) {
+            bytes[i] = (byte) i;
+            chars[i] = (char) i;
+        }
+        String ascii = new String(chars);
+        return Arrays.equals(ascii.getBytes(charset), bytes) && ascii.equals(new String(bytes, charset));
+    }
+
+    /* バイトをそのままcharに拡張したものがデコード結果と一致する文字セットであればtrueを返却します。 */
+    static boolean isLatin1(Charset charset) {
+        return charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    /* 制御文字とスペースを空白文字として扱う。ASCII以外のバイトは負の値になるので含まれない */
+    private static boolean isWhitespace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+}
@@ -0,0 +1,44 @@
+package util.input;
+
+/* char配列の一部分をコピーせずにCharSequenceとして参照するクラスです。
+ *
+ * 入力元のバッファを指したまま行やトークンを返却するために使用します。
+ * 参照先は set で何度でも差し替えることができます。
+ */
+final class CharArraySequence implements CharSequence {
+    private char[] array;
+    private int offset;
+    private int length;
+
+    void set(char[] array, int offset, int length) {
+        this.array = array;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return array[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new String(array, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(array, offset, length);
+    }
+}
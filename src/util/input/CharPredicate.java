@@ -0,0 +1,57 @@
+package util.input;
+
+import java.util.Objects;
+
+/**
+ * char値を引数にとるboolean値関数を表します。
+ * これは{@link java.util.function.Predicate}のchar値に特化したものです。
+ *
+ * <p>{@link InputScanner#readCheckedCharAs(String, CharPredicate)}などで
+ * 読み込んだchar値をボクシングせずに検査するために使用します。</p>
+ *
+ * @author kazusa4418
+ * @see java.util.function.Predicate
+ * @see java.util.function.IntPredicate
+ * @since 1.1
+ */
+@FunctionalInterface
+public interface CharPredicate {
+    /**
+     * 指定された引数でこの条件式を評価します。
+     *
+     * @param c 入力引数
+     * @return  入力引数が条件式に一致する場合はtrue、それ以外の場合はfalse
+     */
+    boolean test(char c);
+
+    /**
+     * この条件式と別の条件式の短絡論理積を表す条件式を返却します。
+     *
+     * @param other この条件式と論理積をとる条件式
+     * @return      この条件式とotherの短絡論理積を表す条件式
+     */
+    default CharPredicate and(CharPredicate other) {
+        Objects.requireNonNull(other);
+        return c -> test(c) && other.test(c);
+    }
+
+    /**
+     * この条件式と別の条件式の短絡論理和を表す条件式を返却します。
+     *
+     * @param other この条件式と論理和をとる条件式
+     * @return      この条件式とotherの短絡論理和を表す条件式
+     */
+    default CharPredicate or(CharPredicate other) {
+        Objects.requireNonNull(other);
+        return c -> test(c) || other.test(c);
+    }
+
+    /**
+     * この条件式の論理否定を表す条件式を返却します。
+     *
+     * @return この条件式の論理否定を表す条件式
+     */
+    default CharPredicate negate() {
+        return c -> !test(c);
+    }
+}
@@ -0,0 +1,23 @@
+package util.input;
+
+/**
+ * {@link RecordReader}が読み込むレコードの各列の型を表す列挙型です。
+ *
+ * <p>各列は{@link InputScanner}の対応する読み込みメソッドと同じ規則で構文解析されます。</p>
+ *
+ * @author kazusa4418
+ * @see RecordReader
+ * @since 1.1
+ */
+public enum ColumnType {
+    /** int型の列。{@link InputScanner#readInt()}と同じ規則で構文解析されます。 */
+    INT,
+    /** long型の列。{@link InputScanner#readLong()}と同じ規則で構文解析されます。 */
+    LONG,
+    /** double型の列。{@link InputScanner#readDouble()}と同じ規則で構文解析されます。 */
+    DOUBLE,
+    /** boolean型の列。"true"か"false"(大文字小文字区別しない)のみ受け付けます。 */
+    BOOLEAN,
+    /** 文字列の列。任意の内容を受け付けます。 */
+    STRING
+}
@@ -0,0 +1,172 @@
+package util.input;
+
+import java.util.Objects;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * 複数の条件式をあらかじめひとつの条件式にまとめるユーティリティクラスです。
+ *
+ * <p>{@link InputScanner#readCheckedInt(String, java.util.function.Predicate[])}などの
+ * 可変長引数で条件式を受け取るメソッドは、読み込むたびに値をボクシングし、
+ * 条件式の配列を先頭から順に評価します。<br>
+ * このクラスでまとめた条件式を{@link InputScanner#readCheckedIntAs(String, IntPredicate)}などに
+ * 与えると、ボクシングせずに同じ検査を行うことができます。</p>
+ *
+ * <p>まとめられた条件式は、可変長引数で与えた場合と同じく
+ * ひとつでも一致する条件式があれば一致したものとして扱われます。
+ * 条件式が3つまでの場合は配列を使用せず、直接呼び出す条件式が作成されます。</p>
+ *
+ * <pre>
+ *     IntPredicate range = Conditions.anyInt(x {@code ->} x == 0, x {@code ->} x {@code >=} 10);
+ *     InputScanner is = new InputScanner();
+ *     int i = is.readIntUntilMatchAs({@code "input > "}, "error try again.", range);
+ * </pre>
+ *
+ * @author kazusa4418
+ * @since 1.1
+ */
+public final class Conditions {
+    private Conditions() {
+    }
+
+    /**
+     * ひとつでも一致すれば一致したものとして扱うint値の条件式を作成します。
+     *
+     * @param preds まとめる条件式
+     * @return      まとめられた条件式
+     */
+    public static IntPredicate anyInt(IntPredicate... preds) {
+        IntPredicate[] p = requireNonNull(preds.clone());
+        switch (p.length) {
+            case 0:
+                return x -> false;
+            case 1:
+                return p[0];
+            case 2: {
+                IntPredicate p0 = p[0], p1 = p[1];
+                return x -> p0.test(x) || p1.test(x);
+            }
+            case 3: {
+                IntPredicate p0 = p[0], p1 = p[1], p2 = p[2];
+                return x -> p0.test(x) || p1.test(x) || p2.test(x);
+            }
+            default:
+                return x -> {
+                    for (IntPredicate q : p) {
+                        if (q.test(x)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+        }
+    }
+
+    /**
+     * ひとつでも一致すれば一致したものとして扱うlong値の条件式を作成します。
+     *
+     * @param preds まとめる条件式
+     * @return      まとめられた条件式
+     */
+    public static LongPredicate anyLong(LongPredicate... preds) {
+        LongPredicate[] p = requireNonNull(preds.clone());
+        switch (p.length) {
+            case 0:
+                return x -> false;
+            case 1:
+                return p[0];
+            case 2: {
+                LongPredicate p0 = p[0], p1 = p[1];
+                return x -> p0.test(x) || p1.test(x);
+            }
+            case 3: {
+                LongPredicate p0 = p[0], p1 = p[1], p2 = p[2];
+                return x -> p0.test(x) || p1.test(x) || p2.test(x);
+            }
+            default:
+                return x -> {
+                    for (LongPredicate q : p) {
+                        if (q.test(x)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+        }
+    }
+
+    /**
+     * ひとつでも一致すれば一致したものとして扱うdouble値の条件式を作成します。
+     *
+     * @param preds まとめる条件式
+     * @return      まとめられた条件式
+     */
+    public static DoublePredicate anyDouble(DoublePredicate... preds) {
+        DoublePredicate[] p = requireNonNull(preds.clone());
+        switch (p.length) {
+            case 0:
+                return x -> false;
+            case 1:
+                return p[0];
+            case 2: {
+                DoublePredicate p0 = p[0], p1 = p[1];
+                return x -> p0.test(x) || p1.test(x);
+            }
+            case 3: {
+                DoublePredicate p0 = p[0], p1 = p[1], p2 = p[2];
+                return x -> p0.test(x) || p1.test(x) || p2.test(x);
+            }
+            default:
+                return x -> {
+                    for (DoublePredicate q : p) {
+                        if (q.test(x)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+        }
+    }
+
+    /**
+     * ひとつでも一致すれば一致したものとして扱うchar値の条件式を作成します。
+     *
+     * @param preds まとめる条件式
+     * @return      まとめられた条件式
+     */
+    public static CharPredicate anyChar(CharPredicate... preds) {
+        CharPredicate[] p = requireNonNull(preds.clone());
+        switch (p.length) {
+            case 0:
+                return c -> false;
+            case 1:
+                return p[0];
+            case 2: {
+                CharPredicate p0 = p[0], p1 = p[1];
+                return c -> p0.test(c) || p1.test(c);
+            }
+            case 3: {
+                CharPredicate p0 = p[0], p1 = p[1], p2 = p[2];
+                return c -> p0.test(c) || p1.test(c) || p2.test(c);
+            }
+            default:
+                return c -> {
+                    for (CharPredicate q : p) {
+                        if (q.test(c)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                };
+        }
+    }
+
+    private static <T> T[] requireNonNull(T[] preds) {
+        for (T p : preds) {
+            Objects.requireNonNull(p);
+        }
+        return preds;
+    }
+}
@@ -0,0 +1,28 @@
+package util.input;
+
+/**
+ * {@link InputScanner}が読み込む入力の形式を表す列挙型です。
+ *
+ * @author kazusa4418
+ * @see InputScanner#InputScanner(java.io.InputStream, InputFormat)
+ * @since 1.1
+ */
+public enum InputFormat {
+    /**
+     * テキスト形式。値は1行ごとに文字列として記述されます。
+     */
+    TEXT,
+
+    /**
+     * バイナリ形式。値は以下の形式で連続して記述されます。
+     *
+     * <ul>
+     *     <li>int値, long値 : ZigZag符号化した値の可変長整数(varint)。
+     *         下位7ビットずつ、続きがあるバイトの最上位ビットを1として並べたもの</li>
+     *     <li>double値 : IEEE 754形式の8バイト(ビッグエンディアン)。
+     *         {@link java.io.DataOutput#writeDouble(double)}と同じ</li>
+     *     <li>文字列 : バイト数を表す符号なしの可変長整数と、それに続くUTF-8のバイト列</li>
+     * </ul>
+     */
+    BINARY
+}
@@ -0,0 +1,430 @@
+package util.input;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * {@link InputScanner}の読み込みの回数、失敗、再試行、待機時間を集計するクラスです。
+ *
+ * <p>{@link InputScanner#enableMetrics()}で集計を開始すると、
+ * 以下の値が集計されます。</p>
+ *
+ * <ul>
+ *     <li>入力元から読み込んだテキスト行とトークンの数、文字数</li>
+ *     <li>入力元からの読み込みで待機した時間と、{@link java.io.IOException}が発生した回数</li>
+ *     <li>読み込む型ごとの試行回数、構文解析に失敗した回数、
+ *         {@code readIntUntilMatch}などでエラーメッセージを出力して再試行した回数</li>
+ *     <li>読み込む型ごとの、1回の試行にかかった時間の分布</li>
+ * </ul>
+ *
+ * <p>試行にかかった時間は、テキスト行を読み込んでから構文解析と検査を終えるまでの時間で、
+ * 2の累乗ごとに区切られたヒストグラムに記録されます。
+ * 集計を開始していない{@link InputScanner}は、読み込みのたびに
+ * 集計が無効であることを確認するだけなので、性能への影響はほとんどありません。</p>
+ *
+ * <p>各集計値はアトミックに更新されるので、{@link #snapshot()}や{@link #reset()}、
+ * JMXの操作は読み込みを行うスレッド以外から呼び出すことができます。
+ * ただし集計値はひとつずつ取得されるので、読み込みと同時に取得した{@link Snapshot}では、
+ * 読み込み中の試行が一部の集計値にのみ反映されていることがあります。</p>
+ *
+ * <pre>
+ *     InputScanner is = new InputScanner();
+ *     InputMetrics metrics = is.enableMetrics();
+ *     metrics.registerMBean("main");
+ *     ...
+ *     System.out.println(metrics.snapshot());
+ * </pre>
+ *
+ * @author kazusa4418
+ * @see InputScanner#enableMetrics()
+ * @since 1.1
+ */
+public final class InputMetrics implements InputMetricsMBean {
+    /**
+     * 集計の単位となる読み込む型です。
+     */
+    public enum Kind {
+        /** {@code readStr}, {@code readCheckedStr}などの文字列の読み込み */
+        STRING,
+        /** {@code readInt}などのint値の読み込み */
+        INT,
+        /** {@code readLong}などのlong値の読み込み */
+        LONG,
+        /** {@code readDouble}などのdouble値の読み込み */
+        DOUBLE,
+        /** {@code readChar}などのchar値の読み込み */
+        CHAR,
+        /** {@code readBoolean}, {@code ask}などのboolean値の読み込み */
+        BOOLEAN,
+        /** {@code readBigInteger}などのBigInteger値の読み込み */
+        BIG_INTEGER,
+        /** {@code readBigDecimal}などのBigDecimal値の読み込み */
+        BIG_DECIMAL
+    }
+
+    private static final int KINDS = Kind.values().length;
+    /* ヒストグラムの区切りの数。区切り b には [2^(b-1), 2^b) ナノ秒の試行が記録される */
+    private static final int BUCKETS = 64;
+
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong tokensRead = new AtomicLong();
+    private final AtomicLong charsRead = new AtomicLong();
+    private final AtomicLong ioBlockedNanos = new AtomicLong();
+    private final AtomicLong ioExceptions = new AtomicLong();
+
+    private final AtomicLongArray reads = new AtomicLongArray(KINDS);
+    private final AtomicLongArray failures = new AtomicLongArray(KINDS);
+    private final AtomicLongArray retries = new AtomicLongArray(KINDS);
+    private final AtomicLongArray latencySums = new AtomicLongArray(KINDS);
+    /* 型ごとのヒストグラムを並べたもの。型 k の区切り b は k * BUCKETS + b にある */
+    private final AtomicLongArray histograms = new AtomicLongArray(KINDS * BUCKETS);
+
+    private ObjectName objectName;
+
+    InputMetrics() {
+    }
+
+    void recordLine(CharSequence line, long nanos) {
+        ioBlockedNanos.addAndGet(nanos);
+        if (line != null) {
+            linesRead.incrementAndGet();
+            charsRead.addAndGet(line.length());
+        }
+    }
+
+    void recordToken(CharSequence token, long nanos) {
+        ioBlockedNanos.addAndGet(nanos);
+        if (token != null) {
+            tokensRead.incrementAndGet();
+            charsRead.addAndGet(token.length());
+        }
+    }
+
+    void recordIOException() {
+        ioExceptions.incrementAndGet();
+    }
+
+    void recordRead(Kind kind, long nanos, boolean success) {
+        int k = kind.ordinal();
+        reads.incrementAndGet(k);
+        if (!success) {
+            failures.incrementAndGet(k);
+        }
+        latencySums.addAndGet(k, nanos);
+        histograms.incrementAndGet(k * BUCKETS + bucket(nanos));
+    }
+
+    void recordRetry(Kind kind) {
+        retries.incrementAndGet(kind.ordinal());
+    }
+
+    private static int bucket(long nanos) {
+        return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * 現在の集計結果の複製を返却します。
+     *
+     * @return 現在の集計結果
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    @Override
+    public long getLinesRead() {
+        return linesRead.get();
+    }
+
+    @Override
+    public long getCharsRead() {
+        return charsRead.get();
+    }
+
+    @Override
+    public long getTokensRead() {
+        return tokensRead.get();
+    }
+
+    @Override
+    public long getIoExceptions() {
+        return ioExceptions.get();
+    }
+
+    @Override
+    public long getIoBlockedMillis() {
+        return ioBlockedNanos.get() / 1_000_000;
+    }
+
+    @Override
+    public long getReads() {
+        return sum(reads);
+    }
+
+    @Override
+    public long getParseFailures() {
+        return sum(failures);
+    }
+
+    @Override
+    public long getRetries() {
+        return sum(retries);
+    }
+
+    @Override
+    public String report() {
+        return snapshot().toString();
+    }
+
+    @Override
+    public void reset() {
+        linesRead.set(0);
+        tokensRead.set(0);
+        charsRead.set(0);
+        ioBlockedNanos.set(0);
+        ioExceptions.set(0);
+        clear(reads);
+        clear(failures);
+        clear(retries);
+        clear(latencySums);
+        clear(histograms);
+    }
+
+    /**
+     * この集計をプラットフォームMBeanサーバーに登録します。
+     *
+     * <p>MBeanは {@code util.input:type=InputScanner,name=}{@code name} という名前で登録されます。
+     * 既に登録している場合は、以前の登録を解除してから登録し直します。</p>
+     *
+     * @param name 登録するMBeanを識別する名前
+     * @exception JMException 登録に失敗したとき
+     *
+     * @return     登録したMBeanの名前
+     */
+    public synchronized ObjectName registerMBean(String name) throws JMException {
+        unregisterMBean();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName on = new ObjectName("util.input:type=InputScanner,name=" + ObjectName.quote(name));
+        server.registerMBean(this, on);
+        objectName = on;
+        return on;
+    }
+
+    /**
+     * {@link #registerMBean(String)}で登録したMBeanの登録を解除します。
+     * 登録していない場合は何もしません。
+     *
+     * @exception JMException 登録の解除に失敗したとき
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    private static long sum(AtomicLongArray values) {
+        long sum = 0;
+        for (int i = 0; i < values.length(); i++) {
+            sum += values.get(i);
+        }
+        return sum;
+    }
+
+    private static long[] toArray(AtomicLongArray values, int from, int length) {
+        long[] array = new long[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = values.get(from + i);
+        }
+        return array;
+    }
+
+    private static void clear(AtomicLongArray values) {
+        for (int i = 0; i < values.length(); i++) {
+            values.set(i, 0);
+        }
+    }
+
+    /**
+     * ある時点の{@link InputMetrics}の集計結果です。
+     *
+     * <p>このクラスのインスタンスは不変です。</p>
+     *
+     * @since 1.1
+     */
+    public static final class Snapshot {
+        private final long linesRead;
+        private final long tokensRead;
+        private final long charsRead;
+        private final long ioBlockedNanos;
+        private final long ioExceptions;
+        private final long[] reads;
+        private final long[] failures;
+        private final long[] retries;
+        private final long[] latencySums;
+        private final long[][] histograms;
+
+        private Snapshot(InputMetrics m) {
+            linesRead = m.linesRead.get();
+            tokensRead = m.tokensRead.get();
+            charsRead = m.charsRead.get();
+            ioBlockedNanos = m.ioBlockedNanos.get();
+            ioExceptions = m.ioExceptions.get();
+            reads = toArray(m.reads, 0, KINDS);
+            failures = toArray(m.failures, 0, KINDS);
+            retries = toArray(m.retries, 0, KINDS);
+            latencySums = toArray(m.latencySums, 0, KINDS);
+            histograms = new long[KINDS][];
+            for (int k = 0; k < KINDS; k++) {
+                histograms[k] = toArray(m.histograms, k * BUCKETS, BUCKETS);
+            }
+        }
+
+        /**
+         * 読み込んだテキスト行の数を返却します。
+         *
+         * @return 読み込んだテキスト行の数
+         */
+        public long getLinesRead() {
+            return linesRead;
+        }
+
+        /**
+         * 読み込んだトークンの数を返却します。
+         *
+         * @return 読み込んだトークンの数
+         */
+        public long getTokensRead() {
+            return tokensRead;
+        }
+
+        /**
+         * 読み込んだテキスト行とトークンの文字数の合計を返却します。
+         *
+         * @return 読み込んだ文字数
+         */
+        public long getCharsRead() {
+            return charsRead;
+        }
+
+        /**
+         * 入力元からの読み込みで待機した時間の合計をナノ秒で返却します。
+         *
+         * @return 入力元からの読み込みで待機した時間(ナノ秒)
+         */
+        public long getIoBlockedNanos() {
+            return ioBlockedNanos;
+        }
+
+        /**
+         * 入力元からの読み込みで{@link java.io.IOException}が発生した回数を返却します。
+         *
+         * @return {@link java.io.IOException}が発生した回数
+         */
+        public long getIoExceptions() {
+            return ioExceptions;
+        }
+
+        /**
+         * 指定した型の読み込みの試行回数を返却します。
+         *
+         * @param kind 読み込む型
+         * @return     試行回数
+         */
+        public long getReads(Kind kind) {
+            return reads[kind.ordinal()];
+        }
+
+        /**
+         * 指定した型の読み込みで構文解析や検査に失敗した回数を返却します。
+         *
+         * @param kind 読み込む型
+         * @return     失敗した回数
+         */
+        public long getParseFailures(Kind kind) {
+            return failures[kind.ordinal()];
+        }
+
+        /**
+         * 指定した型の読み込みでエラーメッセージを出力して再試行した回数を返却します。
+         *
+         * @param kind 読み込む型
+         * @return     再試行した回数
+         */
+        public long getRetries(Kind kind) {
+            return retries[kind.ordinal()];
+        }
+
+        /**
+         * 指定した型の読み込みの1回の試行にかかった時間の平均をナノ秒で返却します。
+         * 試行していない場合は0を返却します。
+         *
+         * @param kind 読み込む型
+         * @return     試行にかかった時間の平均(ナノ秒)
+         */
+        public long getMeanLatencyNanos(Kind kind) {
+            int k = kind.ordinal();
+            return reads[k] == 0 ? 0 : latencySums[k] / reads[k];
+        }
+
+        /**
+         * 指定した型の読み込みの1回の試行にかかった時間の百分位数をナノ秒で返却します。
+         *
+         * <p>時間は2の累乗ごとに区切って記録されているので、返却される値は
+         * 百分位数を含む区切りの上限です。実際の値はその半分から上限の間にあります。<br>
+         * 試行していない場合は0を返却します。</p>
+         *
+         * @param kind       読み込む型
+         * @param percentile 0.0から100.0までの百分位
+         * @exception IllegalArgumentException {@code percentile}が範囲外のとき
+         *
+         * @return           試行にかかった時間の百分位数(ナノ秒)
+         */
+        public long getLatencyPercentileNanos(Kind kind, double percentile) {
+            if (!(percentile >= 0.0 && percentile <= 100.0)) {
+                throw new IllegalArgumentException("Percentile out of range: " + percentile);
+            }
+            int k = kind.ordinal();
+            if (reads[k] == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(reads[k] * percentile / 100.0);
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += histograms[k][b];
+                if (seen >= rank && seen > 0) {
+                    return b == BUCKETS - 1 ? Long.MAX_VALUE : 1L << b;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("lines=").append(linesRead)
+              .append(" tokens=").append(tokensRead)
+              .append(" chars=").append(charsRead)
+              .append(" ioBlockedMs=").append(ioBlockedNanos / 1_000_000)
+              .append(" ioExceptions=").append(ioExceptions);
+            for (Kind kind : Kind.values()) {
+                if (getReads(kind) == 0 && getRetries(kind) == 0) {
+                    continue;
+                }
+                sb.append(System.lineSeparator())
+                  .append(kind)
+                  .append(": reads=").append(getReads(kind))
+                  .append(" failures=").append(getParseFailures(kind))
+                  .append(" retries=").append(getRetries(kind))
+                  .append(" meanNs=").append(getMeanLatencyNanos(kind))
+                  .append(" p50Ns=").append(getLatencyPercentileNanos(kind, 50.0))
+                  .append(" p99Ns=").append(getLatencyPercentileNanos(kind, 99.0));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package util.input;
+
+/**
+ * {@link InputMetrics}をJMXで公開するためのMBeanインターフェースです。
+ *
+ * <p>JConsoleなどから{@link InputScanner}の読み込みの状況を監視することができます。
+ * 登録方法は{@link InputMetrics#registerMBean(String)}を参照してください。</p>
+ *
+ * @author kazusa4418
+ * @see InputMetrics
+ * @since 1.1
+ */
+public interface InputMetricsMBean {
+    /**
+     * 読み込んだテキスト行の数を返却します。
+     *
+     * @return 読み込んだテキスト行の数
+     */
+    long getLinesRead();
+
+    /**
+     * 読み込んだテキスト行とトークンの文字数の合計を返却します。
+     *
+     * @return 読み込んだ文字数
+     */
+    long getCharsRead();
+
+    /**
+     * 読み込んだトークンの数を返却します。
+     *
+     * @return 読み込んだトークンの数
+     */
+    long getTokensRead();
+
+    /**
+     * 入力元からの読み込みで{@link java.io.IOException}が発生した回数を返却します。
+     *
+     * @return {@link java.io.IOException}が発生した回数
+     */
+    long getIoExceptions();
+
+    /**
+     * 入力元からの読み込みで待機した時間の合計をミリ秒で返却します。
+     *
+     * @return 入力元からの読み込みで待機した時間(ミリ秒)
+     */
+    long getIoBlockedMillis();
+
+    /**
+     * すべての型の読み込みの試行回数の合計を返却します。
+     *
+     * @return 読み込みの試行回数
+     */
+    long getReads();
+
+    /**
+     * すべての型の読み込みで構文解析に失敗した回数の合計を返却します。
+     *
+     * @return 構文解析に失敗した回数
+     */
+    long getParseFailures();
+
+    /**
+     * すべての型の読み込みでエラーメッセージを出力して再試行した回数の合計を返却します。
+     *
+     * @return 再試行した回数
+     */
+    long getRetries();
+
+    /**
+     * 型ごとの集計結果を文字列で返却します。
+     *
+     * @return 型ごとの集計結果
+     */
+    String report();
+
+    /**
+     * 集計結果をすべて0に戻します。
+     */
+    void reset();
+}
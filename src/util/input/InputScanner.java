@@ -2,15 +2,37 @@ package util.input;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.ArrayList;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /* 2018/2/11 :
  *     とりあえず使える状態にするという考えで実装。
@@ -90,27 +112,63 @@ import java.util.stream.Stream;
  * @version 1.0
  */
 public final class InputScanner {
-    private BufferedReader reader;
+    /* 行やトークンを読み込む入力元 */
+    private InputSource source;
+
+
+    /* バイナリ形式で読み込む場合の入力元 (テキスト形式ならnull) */
+    private BinarySource binary;
+
+    /* 読み込みの集計 (集計していなければnull) */
+    private InputMetrics metrics;
+    /* 現在の試行の開始時に集計を開始していたか。startRead()とendRead()の間でのみ意味を持つ */
+    private boolean timing;
+
+    /* 先読みを開始している場合の入力元 */
+    private PrefetchSource prefetch;
+    /* 制限時間付きの読み込みを行う入力元 (一度も行っていなければnull) */
+    private TimedSource timed;
+    /* 終了した先読みで行の到着を待った回数の合計 */
+    private long stoppedStallCount;
+
+    /* メッセージの出力先 (設定されていなければSystem.out) */
+    private OutputPrinter output;
+
+    /* trueであればメッセージとエラーメッセージを出力しない */
+    private boolean quiet;
+
+    /* 読み込んだ文字列の正規のインスタンスを保持する表 (無効ならnull) */
+    private StringInternTable internTable;
 
     /* IOErrorが発生したときに表示されるエラーメッセージ */
     private String IOErrMsg = "IOError : try again.";
 
-    /* int型の最大値と最小値の絶対値 */
-    private static final byte[] intMaxValue = { 2, 1, 4, 7, 4, 8, 3, 6, 4, 7 };
-    private static final byte[] intMinValue = { 2, 1, 4, 7, 4, 8, 3, 6, 4, 8 };
-    /* long型の最大値と最小値の絶対値 */
-    private static final byte[] longMaxValue = { 9, 2, 2, 3, 3, 7, 2, 0, 3, 6, 8, 5, 4, 7, 7, 5, 8, 0, 7 };
-    private static final byte[] longMinValue = { 9, 2, 2, 3, 3, 7, 2, 0, 3, 6, 8, 5, 4, 7, 7, 5, 8, 0, 8 };
+    /* 配列入力で空白文字に加えて値を区切る文字 */
+    private char[] delimiters = new char[0];
+
+    /* 配列入力で値の数がわからないときに値を読み込むバッファ */
+    private int[] intBuffer = new int[16];
+    private long[] longBuffer = new long[16];
+    private double[] doubleBuffer = new double[16];
+
+    /* 文字列で与えられた正規表現をコンパイルしたPatternのキャッシュ */
+    private static final PatternCache PATTERN_CACHE = new PatternCache(256);
+
+    /* トークン入力で返却するストリームの特性 */
+    private static final int TOKEN_CHARACTERISTICS = Spliterator.ORDERED | Spliterator.NONNULL;
 
     /**
      * 標準入力に接続された文字型ストリームを作成します。
-     * この文字型ストリームはバッファサイズ8192バイトでバッファリングされています。
+     *
+     * <p>プラットフォームのデフォルト文字セットで読み込みます。
+     * {@link #InputScanner(InputStream, Charset)}に{@link System#in}と
+     * デフォルト文字セットを指定した場合と同じです。</p>
      *
      * @since 1.0
      */
     /* -------------------- コンストラクター -------------------- */
     public InputScanner() {
-        reader = new BufferedReader(new InputStreamReader(System.in));
+        this(System.in, Charset.defaultCharset());
     }
 
     /**
@@ -128,7 +186,177 @@ public final class InputScanner {
      * @since 1.0
      */
     public InputScanner(Reader reader) {
-        this.reader = new BufferedReader(reader);
+        this.source = new ReaderSource(reader);
+    }
+
+    /**
+     * バイト入力ストリームから直接読み込む{@code InputScanner}を作成します。
+     *
+     * <p>{@link InputStreamReader}を経由してすべての入力を文字にデコードするのではなく、
+     * 入力をバイトのまま64KiBのバッファへ読み込み、数値や真偽値をバイトから直接構文解析します。<br>
+     * 文字列へのデコードはASCII以外の文字を含む行を読み込んだときのみ、
+     * プラットフォームのデフォルト文字セットで行われます。</p>
+     *
+     * <p>数値を大量に読み込む場合は{@link InputStreamReader}を経由する場合よりも高速に動作します。
+     * 読み込みに使用するメソッドは他のコンストラクターで作成した場合と同じです。
+     * 文字セットを指定する場合は{@link #InputScanner(InputStream, Charset)}を使用してください。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner(System.in);
+     *     int i = is.readInt();
+     * </pre>
+     *
+     * @param in 読み込むバイト入力ストリーム
+     * @since 1.1
+     */
+    public InputScanner(InputStream in) {
+        this(in, Charset.defaultCharset());
+    }
+
+    /**
+     * 文字セットを指定して、バイト入力ストリームから読み込む{@code InputScanner}を作成します。
+     *
+     * <p>文字セットがASCIIと互換性がある場合(UTF-8, ISO-8859-1, Shift_JIS, EUC-JPなど)、
+     * 入力は{@link #InputScanner(InputStream)}と同じくバイトのまま読み込まれます。
+     * ASCII文字のみで構成される行やトークンはデコードされず、
+     * 数値や真偽値はバイトから直接構文解析されます。
+     * デコードはASCII以外のバイトを含む行やトークンを読み込んだときのみ、指定した文字セットで行われます。
+     * ISO-8859-1の場合は各バイトをそのまま文字に対応させるので、デコードは一切行われません。</p>
+     *
+     * <p>UTF-16などASCIIと互換性のない文字セットの場合は、
+     * {@link InputStreamReader}ですべての入力をデコードしてから読み込みます。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner(System.in, StandardCharsets.UTF_8);
+     *     String name = is.readStr();
+     * </pre>
+     *
+     * @param in      読み込むバイト入力ストリーム
+     * @param charset 入力の文字セット
+     * @since 1.1
+     */
+    public InputScanner(InputStream in, Charset charset) {
+        this.source = textSource(in, charset);
+    }
+
+    /**
+     * 指定した形式でバイト入力ストリームから読み込む{@code InputScanner}を作成します。
+     *
+     * <p>{@link InputFormat#TEXT}を指定した場合は{@link #InputScanner(InputStream)}と同じです。<br>
+     * {@link InputFormat#BINARY}を指定した場合、入力は{@link InputFormat#BINARY}に記述された
+     * バイナリ形式として読み込まれます。
+     * 自作のツール同士で値を受け渡す場合など、入力をテキストにする必要がなければ、
+     * 数値の文字列への変換と構文解析を省くことができます。</p>
+     *
+     * <p>バイナリ形式では、読み込みメソッドは以下のように動作します。</p>
+     *
+     * <ul>
+     *     <li>{@link #readInt()}, {@link #readLong()}, {@link #readDouble()}と、
+     *         それらを使用する条件式付きや再試行付きの読み込みメソッド、
+     *         {@link #ints()}, {@link #longs()}, {@link #doubles()}は数値をバイナリのまま読み込みます。</li>
+     *     <li>{@link #readStr()}, {@link #readLine()}, {@link #tokens()}などの文字列を読み込むメソッドは、
+     *         長さ付きのUTF-8文字列をひとつ読み込みます。
+     *         {@link #readChar()}, {@link #readBoolean()}, {@link #readIntArray()}などの
+     *         その他のメソッドは、読み込んだ文字列をテキスト形式と同じ規則で解釈します。</li>
+     *     <li>メッセージ付きの読み込みメソッドは、テキスト形式と同じく読み込む前にメッセージを出力します。
+     *         対話的でない入力には、空文字 "" のメッセージか{@link #setQuiet(boolean)}を使用してください。</li>
+     *     <li>値の先頭で入力の終わりに達している場合、文字列を読み込むメソッドはnullを返却し、
+     *         数値を読み込むメソッドは{@link java.util.NoSuchElementException}を送出します。</li>
+     *     <li>{@link #startPrefetch(int)}と制限時間付きの読み込みは使用できません。</li>
+     * </ul>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner(System.in, InputFormat.BINARY);
+     *     long sum = is.ints().asLongStream().sum();
+     * </pre>
+     *
+     * @param in     読み込むバイト入力ストリーム
+     * @param format 入力の形式
+     * @since 1.1
+     */
+    public InputScanner(InputStream in, InputFormat format) {
+        if (format == InputFormat.BINARY) {
+            this.binary = new BinarySource(in);
+            this.source = binary;
+        }
+        else {
+            this.source = textSource(in, Charset.defaultCharset());
+        }
+    }
+
+    /* 作成済みの入力元から読み込むInputScannerを作成します。 */
+    private InputScanner(InputSource source) {
+        this.source = source;
+    }
+
+    /* ASCIIと互換性のある文字セットであればバイトのまま、そうでなければデコードしてから読み込む入力元を作成します。 */
+    static InputSource textSource(InputStream in, Charset charset) {
+        if (ByteSource.isAsciiCompatible(charset)) {
+            return new StreamSource(in, charset);
+        }
+        return new ReaderSource(new InputStreamReader(in, charset));
+    }
+
+    /**
+     * ファイルをメモリーマップして読み込む{@code InputScanner}を作成します。
+     *
+     * <p>ファイルは{@link FileChannel#map(FileChannel.MapMode, long, long)}で
+     * 読み込み専用としてマップされ、{@link #readStr()}や{@link #readInt()}などの
+     * 読み込みメソッドはマップされた領域から直接読み込みます。<br>
+     * ヒープへのコピーやバッファを満たすたびの読み込み処理が発生しないので、
+     * 数GBにおよぶ大きなファイルも効率よく読み込むことができます。</p>
+     *
+     * <p>行の終端の扱いは{@link #readStr()}と同じです。
+     * ASCII以外の文字を含む行はプラットフォームのデフォルト文字セットでデコードされます。</p>
+     *
+     * <p>ファイルの終わりに達した後に{@link #readStr()}を呼び出すと
+     * {@code null}が返却されます。</p>
+     *
+     * <pre>
+     *     InputScanner is = InputScanner.open(Paths.get("input.txt"));
+     *     int n = is.readInt();
+     * </pre>
+     *
+     * @param  path 読み込むファイルのパス
+     * @exception IOException
+     *              ファイルを開けなかった場合、またはマップできなかった場合
+     *
+     * @return      ファイルから読み込む{@code InputScanner}
+     * @since 1.1
+     */
+    public static InputScanner open(Path path) throws IOException {
+        return open(path, Charset.defaultCharset());
+    }
+
+    /**
+     * 文字セットを指定して、ファイルをメモリーマップして読み込む{@code InputScanner}を作成します。
+     *
+     * <p>文字セットがASCIIと互換性がある場合は{@link #open(Path)}と同じくマップされた領域から直接読み込み、
+     * ASCII以外のバイトを含む行のみ指定した文字セットでデコードします。
+     * ISO-8859-1の場合はデコードは一切行われません。</p>
+     *
+     * <p>UTF-16などASCIIと互換性のない文字セットの場合、ファイルはマップされず、
+     * {@link InputStreamReader}ですべての入力をデコードしながら読み込みます。
+     * この場合、ファイルは入力の終わりに達した時点で閉じられます。
+     * 入力の終わりまで読み込まずに読み込みをやめた場合、ファイルは開いたままになります。</p>
+     *
+     * <pre>
+     *     InputScanner is = InputScanner.open(Paths.get("input.txt"), StandardCharsets.UTF_8);
+     * </pre>
+     *
+     * @param  path    読み込むファイルのパス
+     * @param  charset ファイルの文字セット
+     * @exception IOException
+     *              ファイルを開けなかった場合、またはマップできなかった場合
+     *
+     * @return      ファイルから読み込む{@code InputScanner}
+     * @since 1.1
+     */
+    public static InputScanner open(Path path, Charset charset) throws IOException {
+        if (ByteSource.isAsciiCompatible(charset)) {
+            return new InputScanner(new MappedSource(path, charset));
+        }
+        return new InputScanner(new ReaderSource(new InputStreamReader(Files.newInputStream(path), charset), true));
     }
 
     /* --------------------------------------------------------- */
@@ -183,17 +411,168 @@ public final class InputScanner {
      * @since 1.0
      */
     public String readStr(String msg) {
+        long start = startRead();
+        CharSequence line = readLine(msg);
+        endRead(InputMetrics.Kind.STRING, start, true);
+        return line == null ? null : toStr(line);
+    }
+
+    /**
+     * テキスト行を読み込み、その内容を参照する{@link CharSequence}を返却します。
+     *
+     * <p>{@link #readStr()}と異なり、読み込んだ行の{@link String}を生成しません。
+     * 返却される{@link CharSequence}は入力元のバッファを直接参照しているので、
+     * このInputScannerで次に読み込みを行うまでの間だけ有効です。
+     * 値を保持し続ける必要がある場合は{@link CharSequence#toString()}を呼び出してください。</p>
+     *
+     * <p>{@link #readInt()}などの構文解析を行う読み込みメソッドも、
+     * すべてこのメソッドで読み込んだ行を直接構文解析しています。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     CharSequence line;
+     *     while ((line = is.readLine()) != null) {
+     *         count += line.length();
+     *     }
+     * </pre>
+     *
+     * @return 行の内容を参照するCharSequence、ただし行の終端文字は含まれない。
+     *         入力の終わりに達している場合はnull
+     * @since 1.1
+     */
+    public CharSequence readLine() {
+        return readLine("");
+    }
+
+    /**
+     * メッセージを出力し、テキスト行を読み込んでその内容を参照する{@link CharSequence}を返却します。
+     *
+     * <p>このメソッドは{@link java.io.PrintStream#print(String)}を
+     * 呼び出してから{@link #readLine()}を呼び出すのと同じ動作をします。<br>
+     * 返却される{@link CharSequence}は次に読み込みを行うまでの間だけ有効です。</p>
+     *
+     * @param  msg 出力するメッセージ
+     * @return 行の内容を参照するCharSequence、ただし行の終端文字は含まれない。
+     *         入力の終わりに達している場合はnull
+     * @since 1.1
+     */
+    public CharSequence readLine(String msg) {
         while (true) {
             try {
-                System.out.print(msg);
-                return reader.readLine();
+                prompt(msg);
+                if (metrics == null) {
+                    return source.readLine();
+                }
+                long start = System.nanoTime();
+                CharSequence line = source.readLine();
+                metrics.recordLine(line, System.nanoTime() - start);
+                return line;
             }
             catch (IOException e) {
-                System.err.println(IOErrMsg);
+                ioError();
             }
         }
     }
 
+    /**
+     * テキスト行を読み込み、その内容を{@link StringBuilder}に格納します。
+     *
+     * <p>{@code dst}の内容は読み込んだ行で置き換えられます。
+     * {@code dst}の容量が足りている限り新しいオブジェクトは生成されないので、
+     * 同じ{@link StringBuilder}を使い回すことで、大量の行を読み込んでも
+     * ガベージを発生させずに処理することができます。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     StringBuilder line = new StringBuilder();
+     *     while (is.readLine(line) != -1) {
+     *         process(line);
+     *     }
+     * </pre>
+     *
+     * @param dst 読み込んだ行を格納するStringBuilder
+     * @return    読み込んだ行の長さ、ただし行の終端文字は含まれない。
+     *            入力の終わりに達している場合は-1
+     * @since 1.1
+     */
+    public int readLine(StringBuilder dst) {
+        return readLine("", dst);
+    }
+
+    /**
+     * メッセージを出力し、テキスト行を読み込んでその内容を{@link StringBuilder}に格納します。
+     *
+     * <p>このメソッドは{@link java.io.PrintStream#print(String)}を
+     * 呼び出してから{@link #readLine(StringBuilder)}を呼び出すのと同じ動作をします。</p>
+     *
+     * @param msg 出力するメッセージ
+     * @param dst 読み込んだ行を格納するStringBuilder
+     * @return    読み込んだ行の長さ、ただし行の終端文字は含まれない。
+     *            入力の終わりに達している場合は-1
+     * @since 1.1
+     */
+    public int readLine(String msg, StringBuilder dst) {
+        CharSequence line = readLine(msg);
+        dst.setLength(0);
+        if (line == null) {
+            return -1;
+        }
+        dst.append(line, 0, line.length());
+        return line.length();
+    }
+
+    /**
+     * テキスト行を読み込み、その内容を{@link CharBuffer}に書き込みます。
+     *
+     * <p>読み込んだ行は{@code dst}の現在位置から書き込まれ、
+     * 位置は書き込んだ文字数だけ進みます。
+     * 書き込んだ内容を読み込むには{@link CharBuffer#flip()}を呼び出してください。</p>
+     *
+     * <p>{@code dst}の残りの容量が行の長さより小さい場合は何も書き込まずに
+     * {@link BufferOverflowException}を送出します。
+     * このとき、行は読み込まれた後なので失われます。</p>
+     *
+     * @param dst 読み込んだ行を書き込むCharBuffer
+     * @exception BufferOverflowException  {@code dst}の残りの容量が行の長さより小さいとき
+     *
+     * @return    読み込んだ行の長さ、ただし行の終端文字は含まれない。
+     *            入力の終わりに達している場合は-1
+     * @since 1.1
+     */
+    public int readLine(CharBuffer dst) {
+        return readLine("", dst);
+    }
+
+    /**
+     * メッセージを出力し、テキスト行を読み込んでその内容を{@link CharBuffer}に書き込みます。
+     *
+     * <p>このメソッドは{@link java.io.PrintStream#print(String)}を
+     * 呼び出してから{@link #readLine(CharBuffer)}を呼び出すのと同じ動作をします。</p>
+     *
+     * @param msg 出力するメッセージ
+     * @param dst 読み込んだ行を書き込むCharBuffer
+     * @exception BufferOverflowException  {@code dst}の残りの容量が行の長さより小さいとき
+     *
+     * @return    読み込んだ行の長さ、ただし行の終端文字は含まれない。
+     *            入力の終わりに達している場合は-1
+     * @since 1.1
+     */
+    public int readLine(String msg, CharBuffer dst) {
+        CharSequence line = readLine(msg);
+        if (line == null) {
+            return -1;
+        }
+        int len = line.length();
+        if (dst.remaining() < len) {
+            throw new BufferOverflowException();
+        }
+        /* CharBuffer#append(CharSequence)はStringを生成するので1文字ずつ書き込む */
+        for (int i = 0; i < len; i++) {
+            dst.put(line.charAt(i));
+        }
+        return len;
+    }
+
     /**
      * メッセージを出力し、正規表現に一致するテキスト行を読み込もうとします。
      * <p>{@link #readStr(String)}の動作に加え、引数に正規表現を表現した
@@ -231,12 +610,8 @@ public final class InputScanner {
      */
     //TODO:可変長引数になっているせいでpatternsが指定されなかったときに競合する問題を修正する
     public String readCheckedStr(String inMsg, String... patterns) {
-        /* String型で与えられた正規表現をPattern型配列に変換する */
-        Stream<String> stream = Arrays.stream(patterns);
-        Pattern[] p = stream.map(Pattern::compile).toArray(Pattern[]::new);
-
-        return readCheckedStr(inMsg, p);
-
+        /* String型で与えられた正規表現をひとつにまとめてコンパイルする */
+        return readCheckedStr(inMsg, PATTERN_CACHE.compileSet(patterns));
     }
 
     /**
@@ -256,14 +631,23 @@ public final class InputScanner {
      */
     //TODO:可変長引数になっているせいでpatternsが指定されなかったときに競合する問題を修正する
     public String readCheckedStr(String inMsg, Pattern... patterns) {
-        String s = readStr(inMsg);
+        return readCheckedStr(inMsg, PATTERN_CACHE.compileSet(patterns));
+    }
+
+    /* ひとつにまとめた正規表現に一致するテキスト行を読み込もうとします。
+     * 一致しなければ空文字を返却します。
+     */
+    private String readCheckedStr(String inMsg, PatternSet patterns) {
+        long start = startRead();
+        CharSequence s = readLine(inMsg);
 
-        /* 読み込んだ文字列が正規表現に一致しているか検証する */
-        boolean flag = checkPatternMatch(s, patterns);
+        /* 読み込んだ文字列が正規表現に一致しているか一度の照合で検証する */
+        boolean flag = patterns.matches(s);
+        endRead(InputMetrics.Kind.STRING, start, flag);
 
         /* 一致していればtrue 不一致ならばfalse */
         if (flag) {
-            return s;
+            return toStr(s);
         }
         else {
             return "";
@@ -310,11 +694,8 @@ public final class InputScanner {
      */
     //TODO:可変長引数になっているせいでpatternsが指定されなかったときに競合する問題を修正する
     public String readStrUntilMatch(String inMsg, String errMsg, String... patterns) {
-        /* String型で与えられた正規表現をPattern型配列に変換 */
-        Stream<String> stream = Arrays.stream(patterns);
-        Pattern[] p = stream.map(Pattern::compile).toArray(Pattern[]::new);
-
-        return readStrUntilMatch(inMsg, errMsg, p);
+        /* String型で与えられた正規表現をひとつにまとめてコンパイルする */
+        return readStrUntilMatch(inMsg, errMsg, PATTERN_CACHE.compileSet(patterns));
     }
 
     /**
@@ -335,6 +716,13 @@ public final class InputScanner {
      */
     //TODO:可変長引数になっているせいでpatternsが指定されなかったときに競合する問題を修正する
     public String readStrUntilMatch(String inMsg, String errMsg, Pattern... patterns) {
+        return readStrUntilMatch(inMsg, errMsg, PATTERN_CACHE.compileSet(patterns));
+    }
+
+    /* ひとつにまとめた正規表現に一致するテキスト行が見つかるまで読み込みを繰り返します。
+     * 正規表現のまとめは繰り返しの前に一度だけ行われます。
+     */
+    private String readStrUntilMatch(String inMsg, String errMsg, PatternSet patterns) {
         while (true) {
             /* 正規表現に一致しているか検査つきでテキスト行を読み込む */
             String s = readCheckedStr(inMsg, patterns);
@@ -344,28 +732,87 @@ public final class InputScanner {
                 return s;
             }
             else {
-                System.err.println(errMsg);
+                retry(InputMetrics.Kind.STRING, errMsg);
             }
         }
     }
 
-    /* 引数の文字列が引数で与えられたPattern型配列に格納されている正規表現と
-     * 一致するかを検証するメソッドです。
-     * 呼び出し元メソッドが与えられた正規表現に読み込んだテキスト行が
-     * 一致しているかを調べるときにこのメソッドは呼ばれます。
+    /**
+     * メッセージを出力してテキスト行を読み込み、一致した正規表現の番号を返却します。
+     *
+     * <p>{@link #readCheckedStr(String, String...)}と同じく、指定した正規表現は
+     * ひとつにまとめて一度の照合で検査されますが、読み込んだ行の代わりに
+     * 一致した正規表現が{@code patterns}の何番目かを返却します。
+     * 複数の正規表現に一致する場合は、先に指定されたものの番号を返却します。<br>
+     * 選択肢ごとに処理を分ける場合、一致した行をもう一度照合し直す必要がありません。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     switch (is.readCheckedStrIndex({@code "command > "}, "q(uit)?", "h(elp)?", "[0-9]+")) {
+     *         case 0: ... // quit
+     *         case 1: ... // help
+     *         case 2: ... // 数値
+     *         default: ... // どれにも一致しなかった
+     *     }
+     * </pre>
+     *
+     * @param inMsg    出力するメッセージ
+     * @param patterns 読み込んだテキスト行との一致を判定する正規表現
+     * @exception java.util.regex.PatternSyntaxException
+     *                 引数に与えられた正規表現の構文が無効な場合
+     * @exception NoSuchElementException
+     *                 入力の終わりに達している場合
      *
-     * Pattern型配列の要素のすべての正規表現に対して、1つでも一致すればtrueが
-     * 返却され、すべてに不一致だった場合はfalseが返却されます。
+     * @return         一致した正規表現の0から始まる番号。どれにも一致しなければ-1
+     * @since 1.1
      */
-    private boolean checkPatternMatch(String s, Pattern[] patterns) {
-        for (Pattern p : patterns) {
-            Matcher m = p.matcher(s);
-            if (m.matches()) {
-                return true;
+    public int readCheckedStrIndex(String inMsg, String... patterns) {
+        return readCheckedStrIndex(inMsg, PATTERN_CACHE.compileSet(patterns));
+    }
+
+    /**
+     * メッセージ付きで正規表現に一致したテキスト行が見つかるまで読み込みを繰り返し、
+     * 一致した正規表現の番号を返却します。
+     *
+     * <p>{@link #readStrUntilMatch(String, String, String...)}と同じく、一致しなかった場合は
+     * エラーメッセージを出力して読み込みを繰り返します。
+     * 返却する番号は{@link #readCheckedStrIndex(String, String...)}と同じです。</p>
+     *
+     * @param inMsg    読み込みを実行するまえに出力するメッセージ
+     * @param errMsg   正規表現に一致してない行を読み込んだ場合に出力するメッセージ
+     * @param patterns 読み込んだテキスト行との一致を判定する正規表現
+     * @exception java.util.regex.PatternSyntaxException
+     *                 引数に与えられた正規表現の構文が無効な場合
+     * @exception NoSuchElementException
+     *                 一致する行が見つかる前に入力の終わりに達した場合
+     *
+     * @return         一致した正規表現の0から始まる番号
+     * @since 1.1
+     */
+    public int readStrIndexUntilMatch(String inMsg, String errMsg, String... patterns) {
+        PatternSet set = PATTERN_CACHE.compileSet(patterns);
+        while (true) {
+            int index = readCheckedStrIndex(inMsg, set);
+            if (index != -1) {
+                return index;
             }
+            retry(InputMetrics.Kind.STRING, errMsg);
         }
-        return false;
     }
+
+    /* テキスト行を読み込み、ひとつにまとめた正規表現のうち一致したものの番号を返却します。 */
+    private int readCheckedStrIndex(String inMsg, PatternSet patterns) {
+        long start = startRead();
+        CharSequence s = readLine(inMsg);
+        if (s == null) {
+            endRead(InputMetrics.Kind.STRING, start, false);
+            throw new NoSuchElementException("End of input");
+        }
+        int index = patterns.indexOf(s);
+        endRead(InputMetrics.Kind.STRING, start, index != -1);
+        return index;
+    }
+
     /* ------------------------------------------------------ */
 
     /* -------------------- INTEGER INPUT -------------------- */
@@ -426,13 +873,26 @@ public final class InputScanner {
      * @since 1.0
      */
     public int readInt(String inMsg) {
-        String s = readStr(inMsg);
-        if (s.matches("[+-]?[0-9]+") && checkInIntRange(s)) {
-            return Integer.parseInt(s);
+        long start = startRead();
+        int value;
+        try {
+            if (binary != null) {
+                /* テキスト形式と同じく、メッセージを出力してから読み込む */
+                prompt(inMsg);
+                value = readBinaryInt();
+            }
+            else {
+                CharSequence s = readLine(inMsg);
+                /* 書式と範囲の検証は構文解析と同時に行われる */
+                value = NumberParser.parseInt(s);
+            }
         }
-        else {
-            throw new IllegalDataFormatException();
+        catch (IllegalDataFormatException e) {
+            endRead(InputMetrics.Kind.INT, start, false);
+            throw e;
         }
+        endRead(InputMetrics.Kind.INT, start, true);
+        return value;
     }
 
     /**
@@ -472,119 +932,9 @@ public final class InputScanner {
                 return readInt(inMsg);
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
-            }
-        }
-    }
-
-    /* 引数で与えられたプラス記号とマイナス記号、または数字のみで構成された
-     * String型文字列がInt型に構文解析できるかどうか検査するメソッドです。
-     *
-     * まず、正の値か負の値か識別します。
-     *
-     * その後、正負記号を取り除き文字数を確認します。
-     * 11文字以上ならばInt型に構文解析することは不可能です。
-     * 9文字以下ならばInt型に構文解析可能です。
-     *
-     * 10文字ちょうどであったならば一桁ずつ値を検証していきます。
-     *
-     * その結果、1桁でもInt型の範囲外の数値が存在すればその時点で
-     * falseが返却されます。
-     *
-     * すべての桁においてInt型の値の範囲を超えていなかった場合は
-     * trueを返却します。
-     *
-     */
-    private boolean checkInIntRange(String s) {
-        s = deleteFront0(s);
-        /* 正負を確認する */
-        /* 正の値の場合 */
-        if (s.charAt(0) == '-') {
-            return intRangeCheck(s, "-", intMinValue);
-        }
-        /* 正の値の場合 */
-        else {
-            return intRangeCheck(s, "+", intMaxValue);
-        }
-    }
-
-    private boolean intRangeCheck(String s, String ch, byte[] intValue) {
-        /* 正負記号を削除する */
-        s = s.replace(ch, "");
-
-        /* 10桁より多ければ構文解析できない */
-        if (s.length() > 10) {
-            return false;
-        }
-        /* 10桁より少なければ構文解析可能 */
-        else if (s.length() < 10) {
-            return true;
-        }
-        /* 10桁ぴったりであれば1桁ずつ値を検証していく */
-        else {
-            String[] ss = s.split("");
-            for (int i = 0; i < intValue.length; i++ ) {
-                if (Byte.parseByte(ss[i]) > intValue[i]) {
-                    return false;
-                }
-            }
-            return true;
-        }
-    }
-
-
-    /*
-     * 引数で与えられた文字列から先頭の0をすべて取り除きます。
-     *
-     * 例えば "+000450"という値ならば"+450"という値に、
-     * "-000450"という値ならば"-450"に、"000450"という
-     * 値ならば"450"に変換します。
-     */
-
-    private String deleteFront0(String s) {
-        /* 引数の文字列を一文字ずつcharとして格納するリスト */
-        List<Character> list = new ArrayList<>();
-        /* 引数の文字列を一文字ずつ取り出してリストに格納する */
-        for (char c : s.toCharArray()) {
-            list.add(c);
-        }
-
-        /* 先頭の文字が正負記号だった場合 */
-        if (list.get(0) != '-' && list.get(0) != '+') {
-            while (true) {
-                if (list.get(0).equals('0')) {
-                    list.remove(0);
-                }
-                else {
-                    break;
-                }
-            }
-            /* 与えられた引数が0のみで構成された文字列だった場合 */
-            if (list.size() == 0) {
-                list.add('0');
+                retry(InputMetrics.Kind.INT, errMsg);
             }
         }
-        /* 正負記号が存在しなかった場合 */
-        else {
-            while (true) {
-                if (list.get(1).equals('0')) {
-                    list.remove(1);
-                }
-                else {
-                    break;
-                }
-            }
-            /* 与えられた引数が正負記号と0のみで構成された文字列だった場合 */
-            if (list.size() == 1) {
-                list.add('0');
-            }
-        }
-        /* 先頭の0の削除が終わったCharacter型リストをString型に変換して返却する */
-        StringBuilder sb = new StringBuilder();
-        for (Character c : list) {
-            sb.append(c);
-        }
-        return sb.toString();
     }
 
     /**
@@ -710,7 +1060,7 @@ public final class InputScanner {
                 }
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
+                retry(InputMetrics.Kind.INT, errMsg);
             }
         }
     }
@@ -730,43 +1080,104 @@ public final class InputScanner {
         }
         return false;
     }
-    /* ------------------------------------------------------- */
-
-    /* -------------------- LONG INPUT -------------------- */
 
     /**
-     * テキスト行を読み込み、それをlong型として解釈します。
-     * <p>1行の終端は改行文字 "\n"か復帰 "\r" またはその両方の
-     * 改行と復帰 "\n\r" で認識されます。</p>
-     * <p>読み込むテキスト行に終端文字は含まず、その直前の文字1行を
-     * 読み込みます。</p>
-     *
-     * <p>読み込まれたテキスト行がlong型に構文解析可能だった場合のみ
-     * long型に変換され返却されます。
-     * もし、構文解析不可能だった場合は例外がスローされます。</p>
-     *
-     * <p>このメソッドは{@link IOException}を送出する可能性があります。
-     * これが送出されると読み込みをいったん取り消し、再入力を試行します。</p>
+     * メッセージ付きで指定した条件式に一致するint値に構文解析が可能な
+     * テキスト行を読み込みます。
      *
-     * <p>以下、標準入力でlong値を読み込む使用例です。</p>
+     * <p>このメソッドは{@link #readCheckedInt(String, Predicate[])}と同じ動作をしますが、
+     * 条件式を{@link IntPredicate}で受け取るので、読み込んだ値はボクシングされずに検査されます。<br>
+     * 可変長引数のメソッドと名前を分けているので、ラムダ式の引数はプリミティブ型として扱われます。<br>
+     * 複数の条件式を指定する場合は{@link Conditions#anyInt(IntPredicate...)}で
+     * あらかじめひとつにまとめてください。</p>
      *
      * <pre>
      *     InputScanner is = new InputScanner();
-     *     long l = is.readLong();
+     *     int i = is.readCheckedIntAs({@code "input > ", x -> x >= 0 && x <= 100});
      * </pre>
      *
+     * @param inMsg 出力するメッセージ
+     * @param pred  構文解析されたint値の範囲を制限する条件式
      * @exception IllegalDataFormatException
-     *            読み込んだテキスト行をlong型に構文解析できなかったとき
+     *              指定したint値の範囲を満たしていない場合、
+     *              読み込んだテキスト行をint型に構文解析できなかった場合
      *
-     * @return    終端文字を除く行の内容をlong型に構文解析したもの
-     * @since 1.0
+     * @return      終端文字を除く行の内容を条件に一致した範囲のint型に構文解析したもの
+     * @since 1.1
      */
-    public long readLong() {
-        return readLong("");
-    }
+    public int readCheckedIntAs(String inMsg, IntPredicate pred) {
+        int i = readInt(inMsg);
 
-    /**
-     * メッセージを出力した後、テキスト行を読み込み、それをlong型として解釈します。
+        if (pred.test(i)) {
+            return i;
+        }
+        else {
+            throw new IllegalDataFormatException();
+        }
+    }
+
+    /**
+     * メッセージ付きで指定した条件式に一致するint値に構文解析が可能な
+     * テキスト行が見つかるまで読み込みを繰り返します。
+     *
+     * <p>このメソッドは{@link #readIntUntilMatch(String, String, Predicate[])}と同じ動作をしますが、
+     * 条件式を{@link IntPredicate}で受け取るので、読み込んだ値はボクシングされずに検査されます。</p>
+     *
+     * @param inMsg  読み込む前に出力されるメッセージ
+     * @param errMsg 読み込んだテキスト行をint型に構文解析できなかったか、
+     *               読み込んだint値が範囲を満たしていないときに出力するメッセージ
+     *
+     * @param pred   構文解析されたint値の範囲を制限する条件式
+     * @return       終端文字を除く行の内容を条件に一致した範囲のint型に構文解析したもの
+     * @since 1.1
+     */
+    public int readIntUntilMatchAs(String inMsg, String errMsg, IntPredicate pred) {
+        while (true) {
+            try {
+                return readCheckedIntAs(inMsg, pred);
+            }
+            catch (IllegalDataFormatException e) {
+                retry(InputMetrics.Kind.INT, errMsg);
+            }
+        }
+    }
+    /* ------------------------------------------------------- */
+
+    /* -------------------- LONG INPUT -------------------- */
+
+    /**
+     * テキスト行を読み込み、それをlong型として解釈します。
+     * <p>1行の終端は改行文字 "\n"か復帰 "\r" またはその両方の
+     * 改行と復帰 "\n\r" で認識されます。</p>
+     * <p>読み込むテキスト行に終端文字は含まず、その直前の文字1行を
+     * 読み込みます。</p>
+     *
+     * <p>読み込まれたテキスト行がlong型に構文解析可能だった場合のみ
+     * long型に変換され返却されます。
+     * もし、構文解析不可能だった場合は例外がスローされます。</p>
+     *
+     * <p>このメソッドは{@link IOException}を送出する可能性があります。
+     * これが送出されると読み込みをいったん取り消し、再入力を試行します。</p>
+     *
+     * <p>以下、標準入力でlong値を読み込む使用例です。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     long l = is.readLong();
+     * </pre>
+     *
+     * @exception IllegalDataFormatException
+     *            読み込んだテキスト行をlong型に構文解析できなかったとき
+     *
+     * @return    終端文字を除く行の内容をlong型に構文解析したもの
+     * @since 1.0
+     */
+    public long readLong() {
+        return readLong("");
+    }
+
+    /**
+     * メッセージを出力した後、テキスト行を読み込み、それをlong型として解釈します。
      * <p>このメソッドは{@link java.io.PrintStream#print(String)}を呼び出してから
      * {@link #readLong()}を呼び出すのと同じ動作をします。</p>
      *
@@ -790,13 +1201,26 @@ public final class InputScanner {
      * @since 1.0
      */
     public long readLong(String inMsg) {
-        String s = readStr(inMsg);
-        if (s.matches("[+-]?[0-9]+") && checkInLongRange(s)) {
-            return Long.parseLong(s);
+        long start = startRead();
+        long value;
+        try {
+            if (binary != null) {
+                /* テキスト形式と同じく、メッセージを出力してから読み込む */
+                prompt(inMsg);
+                value = readBinaryLong();
+            }
+            else {
+                CharSequence s = readLine(inMsg);
+                /* 書式と範囲の検証は構文解析と同時に行われる */
+                value = NumberParser.parseLong(s);
+            }
         }
-        else {
-            throw new IllegalDataFormatException();
+        catch (IllegalDataFormatException e) {
+            endRead(InputMetrics.Kind.LONG, start, false);
+            throw e;
         }
+        endRead(InputMetrics.Kind.LONG, start, true);
+        return value;
     }
 
     /**
@@ -836,63 +1260,8 @@ public final class InputScanner {
                 return readLong(inMsg);
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
-            }
-        }
-    }
-
-    /* 引数で与えられたプラス記号とマイナス記号、または数字のみで構成された
-     * String型文字列がlong型に構文解析できるかどうか検査するメソッドです。
-     *
-     * まず、正の値か負の値か識別します。
-     *
-     * その後、正負記号を取り除き文字数を確認します。
-     * 20文字以上ならばlong型に構文解析することは不可能です。
-     * 18文字以下ならばlong型に構文解析可能です。
-     *
-     * 19文字ちょうどであったならば一桁ずつ値を検証していきます。
-     *
-     * その結果、1桁でもlong型の範囲外の数値が存在すればその時点で
-     * falseが返却されます。
-     *
-     * すべての桁においてlong型の値の範囲を超えていなかった場合は
-     * trueを返却します。
-     *
-     */
-    private boolean checkInLongRange(String s) {
-        s = deleteFront0(s);
-        /* 正の値かどうかを検査する */
-        /* 負の値の場合 */
-        if (s.charAt(0) == '-') {
-            return longRangeCheck(s, "-", longMinValue);
-        }
-        /* 正の値の場合 */
-        else {
-            return longRangeCheck(s, "+", longMaxValue);
-        }
-    }
-
-    private boolean longRangeCheck(String s, String ch, byte[] longValue) {
-        /* 正負記号を削除する */
-        s = s.replace(ch, "");
-
-        /* 19桁より多ければ構文解析できない */
-        if (s.length() > 19) {
-            return false;
-        }
-        /* 19桁より少なければ構文解析可能 */
-        else if (s.length() < 19) {
-            return true;
-        }
-        /* 19桁ぴったりであれば1桁ずつ値を検証していく */
-        else {
-            String[] ss = s.split("");
-            for (int i = 0; i < longValue.length; i++ ) {
-                if (Byte.parseByte(ss[i]) > longValue[i]) {
-                    return false;
-                }
+                retry(InputMetrics.Kind.LONG, errMsg);
             }
-            return true;
         }
     }
 
@@ -1017,7 +1386,7 @@ public final class InputScanner {
                 }
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
+                retry(InputMetrics.Kind.LONG, errMsg);
             }
         }
     }
@@ -1037,6 +1406,67 @@ public final class InputScanner {
         }
         return false;
     }
+
+    /**
+     * メッセージ付きで指定した条件式に一致するlong値に構文解析が可能な
+     * テキスト行を読み込みます。
+     *
+     * <p>このメソッドは{@link #readCheckedLong(String, Predicate[])}と同じ動作をしますが、
+     * 条件式を{@link LongPredicate}で受け取るので、読み込んだ値はボクシングされずに検査されます。<br>
+     * 可変長引数のメソッドと名前を分けているので、ラムダ式の引数はプリミティブ型として扱われます。<br>
+     * 複数の条件式を指定する場合は{@link Conditions#anyLong(LongPredicate...)}で
+     * あらかじめひとつにまとめてください。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     long l = is.readCheckedLongAs({@code "input > ", x -> x >= 0 && x <= 100});
+     * </pre>
+     *
+     * @param inMsg 出力するメッセージ
+     * @param pred  構文解析されたlong値の範囲を制限する条件式
+     * @exception IllegalDataFormatException
+     *              指定したlong値の範囲を満たしていない場合、
+     *              読み込んだテキスト行をlong型に構文解析できなかった場合
+     *
+     * @return      終端文字を除く行の内容を条件に一致した範囲のlong型に構文解析したもの
+     * @since 1.1
+     */
+    public long readCheckedLongAs(String inMsg, LongPredicate pred) {
+        long l = readLong(inMsg);
+
+        if (pred.test(l)) {
+            return l;
+        }
+        else {
+            throw new IllegalDataFormatException();
+        }
+    }
+
+    /**
+     * メッセージ付きで指定した条件式に一致するlong値に構文解析が可能な
+     * テキスト行が見つかるまで読み込みを繰り返します。
+     *
+     * <p>このメソッドは{@link #readLongUntilMatch(String, String, Predicate[])}と同じ動作をしますが、
+     * 条件式を{@link LongPredicate}で受け取るので、読み込んだ値はボクシングされずに検査されます。</p>
+     *
+     * @param inMsg  読み込む前に出力されるメッセージ
+     * @param errMsg 読み込んだテキスト行をlong型に構文解析できなかったか、
+     *               読み込んだlong値が範囲を満たしていないときに出力するメッセージ
+     *
+     * @param pred   構文解析されたlong値の範囲を制限する条件式
+     * @return       終端文字を除く行の内容を条件に一致した範囲のlong型に構文解析したもの
+     * @since 1.1
+     */
+    public long readLongUntilMatchAs(String inMsg, String errMsg, LongPredicate pred) {
+        while (true) {
+            try {
+                return readCheckedLongAs(inMsg, pred);
+            }
+            catch (IllegalDataFormatException e) {
+                retry(InputMetrics.Kind.LONG, errMsg);
+            }
+        }
+    }
     /* ---------------------------------------------------- */
 
     /* -------------------- CHAR INPUT -------------------- */
@@ -1069,13 +1499,15 @@ public final class InputScanner {
      * @since 1.0
      */
     public char readChar() {
-        String s = readStr();
+        long start = startRead();
+        CharSequence s = readLine("");
 
-        char[] c = s.toCharArray();
-        if (c.length == 1) {
-            return c[0];
+        if (s.length() == 1) {
+            endRead(InputMetrics.Kind.CHAR, start, true);
+            return s.charAt(0);
         }
         else {
+            endRead(InputMetrics.Kind.CHAR, start, false);
             throw new IllegalDataFormatException();
         }
     }
@@ -1105,7 +1537,7 @@ public final class InputScanner {
      * @since 1.0
      */
     public char readChar(String inMsg) {
-        System.out.print(inMsg);
+        prompt(inMsg);
         return readChar();
     }
 
@@ -1146,7 +1578,7 @@ public final class InputScanner {
                 return readChar(inMsg);
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
+                retry(InputMetrics.Kind.CHAR, errMsg);
             }
         }
     }
@@ -1265,7 +1697,7 @@ public final class InputScanner {
                 return readCheckedChar(inMsg, pred);
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
+                retry(InputMetrics.Kind.CHAR, errMsg);
             }
         }
     }
@@ -1286,6 +1718,67 @@ public final class InputScanner {
         }
         return false;
     }
+
+    /**
+     * メッセージ付きで指定した条件式に一致するchar値に構文解析が可能な
+     * テキスト行を読み込みます。
+     *
+     * <p>このメソッドは{@link #readCheckedChar(String, Predicate[])}と同じ動作をしますが、
+     * 条件式を{@link CharPredicate}で受け取るので、読み込んだ値はボクシングされずに検査されます。<br>
+     * 可変長引数のメソッドと名前を分けているので、ラムダ式の引数はプリミティブ型として扱われます。<br>
+     * 複数の条件式を指定する場合は{@link Conditions#anyChar(CharPredicate...)}で
+     * あらかじめひとつにまとめてください。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     char c = is.readCheckedCharAs({@code "input > ", c -> c == 'y' || c == 'n'});
+     * </pre>
+     *
+     * @param inMsg 出力するメッセージ
+     * @param pred  構文解析されたchar値の範囲を制限する条件式
+     * @exception IllegalDataFormatException
+     *              指定したchar値の範囲を満たしていない場合、
+     *              読み込んだテキスト行をchar型に構文解析できなかった場合
+     *
+     * @return      終端文字を除く行の内容を条件に一致した範囲のchar型に構文解析したもの
+     * @since 1.1
+     */
+    public char readCheckedCharAs(String inMsg, CharPredicate pred) {
+        char c = readChar(inMsg);
+
+        if (pred.test(c)) {
+            return c;
+        }
+        else {
+            throw new IllegalDataFormatException();
+        }
+    }
+
+    /**
+     * メッセージ付きで指定した条件式に一致するchar値に構文解析が可能な
+     * テキスト行が見つかるまで読み込みを繰り返します。
+     *
+     * <p>このメソッドは{@link #readCharUntilMatch(String, String, Predicate[])}と同じ動作をしますが、
+     * 条件式を{@link CharPredicate}で受け取るので、読み込んだ値はボクシングされずに検査されます。</p>
+     *
+     * @param inMsg  読み込む前に出力されるメッセージ
+     * @param errMsg 読み込んだテキスト行をchar型に構文解析できなかったか、
+     *               読み込んだchar値が範囲を満たしていないときに出力するメッセージ
+     *
+     * @param pred   構文解析されたchar値の範囲を制限する条件式
+     * @return       終端文字を除く行の内容を条件に一致した範囲のchar型に構文解析したもの
+     * @since 1.1
+     */
+    public char readCharUntilMatchAs(String inMsg, String errMsg, CharPredicate pred) {
+        while (true) {
+            try {
+                return readCheckedCharAs(inMsg, pred);
+            }
+            catch (IllegalDataFormatException e) {
+                retry(InputMetrics.Kind.CHAR, errMsg);
+            }
+        }
+    }
     /* ---------------------------------------------------- */
 
     /* -------------------- DOUBLE INPUT -------------------- */
@@ -1317,17 +1810,25 @@ public final class InputScanner {
      * @return    終端文字を除く行の内容をdouble型に構文解析したもの
      * @since 1.0
      */
-    //TODO: DOUBLE型の変換アルゴリズムを自分で考えて実装する
     public double readDouble() {
-        String s = readStr();
-
+        long start = startRead();
+        double value;
         try {
-            return Double.parseDouble(s);
+            if (binary != null) {
+                value = readBinaryDouble();
+            }
+            else {
+                CharSequence s = readLine("");
+                /* 書式の検証は構文解析と同時に行われ、内部で例外を発生させることはない */
+                value = NumberParser.parseDouble(s);
+            }
         }
-        catch (NumberFormatException e) {
-            //TODO: 例外を握りつぶしているので違うアルゴリズムに変換するか例外情報を引きつぐ
-            throw new IllegalDataFormatException();
+        catch (IllegalDataFormatException e) {
+            endRead(InputMetrics.Kind.DOUBLE, start, false);
+            throw e;
         }
+        endRead(InputMetrics.Kind.DOUBLE, start, true);
+        return value;
     }
 
     /**
@@ -1355,7 +1856,7 @@ public final class InputScanner {
      * @since 1.0
      */
     public double readDouble(String inMsg) {
-        System.out.print(inMsg);
+        prompt(inMsg);
         return readDouble();
     }
 
@@ -1396,7 +1897,7 @@ public final class InputScanner {
                 return readDouble(inMsg);
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
+                retry(InputMetrics.Kind.DOUBLE, errMsg);
             }
         }
     }
@@ -1515,7 +2016,7 @@ public final class InputScanner {
                 return readCheckedDouble(inMsg, pred);
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
+                retry(InputMetrics.Kind.DOUBLE, errMsg);
             }
         }
     }
@@ -1537,6 +2038,67 @@ public final class InputScanner {
         return false;
     }
 
+    /**
+     * メッセージ付きで指定した条件式に一致するdouble値に構文解析が可能な
+     * テキスト行を読み込みます。
+     *
+     * <p>このメソッドは{@link #readCheckedDouble(String, Predicate[])}と同じ動作をしますが、
+     * 条件式を{@link DoublePredicate}で受け取るので、読み込んだ値はボクシングされずに検査されます。<br>
+     * 可変長引数のメソッドと名前を分けているので、ラムダ式の引数はプリミティブ型として扱われます。<br>
+     * 複数の条件式を指定する場合は{@link Conditions#anyDouble(DoublePredicate...)}で
+     * あらかじめひとつにまとめてください。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     double d = is.readCheckedDoubleAs({@code "input > ", x -> x >= 3.14});
+     * </pre>
+     *
+     * @param inMsg 出力するメッセージ
+     * @param pred  構文解析されたdouble値の範囲を制限する条件式
+     * @exception IllegalDataFormatException
+     *              指定したdouble値の範囲を満たしていない場合、
+     *              読み込んだテキスト行をdouble型に構文解析できなかった場合
+     *
+     * @return      終端文字を除く行の内容を条件に一致した範囲のdouble型に構文解析したもの
+     * @since 1.1
+     */
+    public double readCheckedDoubleAs(String inMsg, DoublePredicate pred) {
+        double d = readDouble(inMsg);
+
+        if (pred.test(d)) {
+            return d;
+        }
+        else {
+            throw new IllegalDataFormatException();
+        }
+    }
+
+    /**
+     * メッセージ付きで指定した条件式に一致するdouble値に構文解析が可能な
+     * テキスト行が見つかるまで読み込みを繰り返します。
+     *
+     * <p>このメソッドは{@link #readDoubleUntilMatch(String, String, Predicate[])}と同じ動作をしますが、
+     * 条件式を{@link DoublePredicate}で受け取るので、読み込んだ値はボクシングされずに検査されます。</p>
+     *
+     * @param inMsg  読み込む前に出力されるメッセージ
+     * @param errMsg 読み込んだテキスト行をdouble型に構文解析できなかったか、
+     *               読み込んだdouble値が範囲を満たしていないときに出力するメッセージ
+     *
+     * @param pred   構文解析されたdouble値の範囲を制限する条件式
+     * @return       終端文字を除く行の内容を条件に一致した範囲のdouble型に構文解析したもの
+     * @since 1.1
+     */
+    public double readDoubleUntilMatchAs(String inMsg, String errMsg, DoublePredicate pred) {
+        while (true) {
+            try {
+                return readCheckedDoubleAs(inMsg, pred);
+            }
+            catch (IllegalDataFormatException e) {
+                retry(InputMetrics.Kind.DOUBLE, errMsg);
+            }
+        }
+    }
+
 
     /* 未使用 */
     @SuppressWarnings("unused")
@@ -1554,42 +2116,328 @@ public final class InputScanner {
 
     /* ------------------------------------------------------ */
 
-    /* -------------------- BOOLEAN INPUT -------------------- */
-
-    /* 読み込まれた文字列が引数で与えられた２つの正規表現に一致した場合に
-     * 対応するbooleanを返却するメソッド。
-     * truePtに一致した場合はtrueを、falsePtに一致した場合はfalseを
-     * 返却する。
-     * 文字列がtruePt,falsePtの両方を満たした場合、trueが優先的に
-     * 返却される。
-     */
-    private boolean readBoo(Pattern truePt, Pattern falsePt) {
-        String s = readStr();
-
-        Matcher m_1 = truePt.matcher(s);
-        Matcher m_2 = falsePt.matcher(s);
-
-        if (m_1.matches()) {
-            return true;
-        }
-        else if (m_2.matches()) {
-            return false;
-        }
-        else {
-            throw new IllegalDataFormatException();
-        }
-    }
-
+    /* -------------------- BIG NUMBER INPUT -------------------- */
     /**
-     * テキスト行を読み込み、それが"true"または"false"(大文字小文字は区別しない)
-     * に一致した場合に対応するbooleanを返却します。
+     * テキスト行を読み込み、それをBigInteger型として解釈します。
      *
-     * <p>1行の終端は改行文字 "\n"か復帰 "\r" またはその両方の
-     * 改行と復帰 "\n\r" で認識されます。</p>
-     * <p>読み込むテキスト行に終端文字は含まず、その直前の文字1行を
-     * 読み込みます。</p>
+     * <p>書式は{@link #readLong()}と同じく、正負記号と先頭の0を含むことができる10進数の整数です。
+     * 値の範囲に制限はないので、{@link #readLong()}では範囲外となる値も読み込むことができます。<br>
+     * 数十万桁の数字列も分割統治法で変換するので、{@code new BigInteger(String)}のように
+     * 桁数の2乗に比例する時間はかかりません。</p>
      *
-     * <p>読み込まれたテキスト行が大文字、小文字区別せずに
+     * <p>このメソッドは{@link IOException}を送出する可能性があります。
+     * これが送出されると読み込みをいったん取り消し、再入力を試行します。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     BigInteger v = is.readBigInteger();
+     * </pre>
+     *
+     * @exception IllegalDataFormatException
+     *            読み込んだテキスト行をBigInteger型に構文解析できなかったとき
+     *
+     * @return    終端文字を除く行の内容をBigInteger型に構文解析したもの
+     * @since 1.1
+     */
+    public BigInteger readBigInteger() {
+        return readBigInteger("");
+    }
+
+    /**
+     * メッセージを出力した後、テキスト行を読み込み、それをBigInteger型として解釈します。
+     * <p>このメソッドは{@link java.io.PrintStream#print(String)}を呼び出してから
+     * {@link #readBigInteger()}を呼び出すのと同じ動作をします。</p>
+     *
+     * @param inMsg 出力するメッセージ
+     * @exception IllegalDataFormatException
+     *              読み込んだテキスト行をBigInteger型に構文解析できなかったとき
+     *
+     * @return      終端文字を除く行の内容をBigInteger型に構文解析したもの
+     * @since 1.1
+     */
+    public BigInteger readBigInteger(String inMsg) {
+        long start = startRead();
+        BigInteger value;
+        try {
+            value = NumberParser.parseBigInteger(readLine(inMsg));
+        }
+        catch (IllegalDataFormatException e) {
+            endRead(InputMetrics.Kind.BIG_INTEGER, start, false);
+            throw e;
+        }
+        endRead(InputMetrics.Kind.BIG_INTEGER, start, true);
+        return value;
+    }
+
+    /**
+     * メッセージ付きでBigInteger型に構文解析可能なテキスト行が見つかるまで
+     * 読み込みを繰り返し、見つかったらそれをBigInteger型に構文解析します。
+     *
+     * <p>{@link #readBigInteger(String)}の動作に加え、読み込んだテキスト行を
+     * BigInteger型に構文解析できなかった場合、エラーメッセージを表示し、さらに1行を読み込みます。
+     * これを構文解析に成功するまで繰り返します。</p>
+     *
+     * @param inMsg  テキスト行を読み込む前に出力するメッセージ
+     * @param errMsg 読み込んだテキスト行をBigInteger型に構文解析できなかったときに
+     *               出力するメッセージ
+     *
+     * @return       終端文字を除く行の内容をBigInteger型に構文解析したもの
+     * @since 1.1
+     */
+    public BigInteger readBigInteger(String inMsg, String errMsg) {
+        while (true) {
+            try {
+                return readBigInteger(inMsg);
+            }
+            catch (IllegalDataFormatException e) {
+                retry(InputMetrics.Kind.BIG_INTEGER, errMsg);
+            }
+        }
+    }
+
+    /**
+     * メッセージ付きで指定した条件式に一致するBigInteger値に構文解析が可能な
+     * テキスト行を読み込みます。
+     *
+     * <p>{@link #readBigInteger(String)}を呼び出した上で、
+     * 読み込まれた値が指定した条件式に一致しているか検査し、
+     * 一致している場合はそのまま返却、一致していなかった場合は
+     * 例外がスローされます。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     BigInteger v = is.readCheckedBigInteger({@code "input > ", x -> x.signum() >= 0});
+     * </pre>
+     *
+     * @param inMsg 出力するメッセージ
+     * @param pred  構文解析されたBigInteger値の範囲を制限する条件式
+     * @exception IllegalDataFormatException
+     *              指定したBigInteger値の範囲を満たしていない場合、
+     *              読み込んだテキスト行をBigInteger型に構文解析できなかった場合
+     *
+     * @return      終端文字を除く行の内容を条件に一致した範囲のBigInteger型に構文解析したもの
+     * @since 1.1
+     */
+    public BigInteger readCheckedBigInteger(String inMsg, Predicate<BigInteger> pred) {
+        BigInteger v = readBigInteger(inMsg);
+
+        if (pred.test(v)) {
+            return v;
+        }
+        else {
+            throw new IllegalDataFormatException();
+        }
+    }
+
+    /**
+     * メッセージ付きで指定した条件式に一致するBigInteger値に構文解析が可能な
+     * テキスト行が見つかるまで読み込みを繰り返します。
+     *
+     * <p>{@link #readCheckedBigInteger(String, Predicate)}を呼び出し、
+     * 例外がスローされた場合はエラーメッセージを表示して再度読み込みます。<br>
+     * これを読み込んだBigInteger値が条件式を満たすまで繰り返します。</p>
+     *
+     * @param inMsg  読み込む前に出力されるメッセージ
+     * @param errMsg 読み込んだテキスト行をBigInteger型に構文解析できなかったか、
+     *               読み込んだBigInteger値が範囲を満たしていないときに出力するメッセージ
+     *
+     * @param pred   構文解析されたBigInteger値の範囲を制限する条件式
+     * @return       終端文字を除く行の内容を条件に一致した範囲のBigInteger型に構文解析したもの
+     * @since 1.1
+     */
+    public BigInteger readBigIntegerUntilMatch(String inMsg, String errMsg, Predicate<BigInteger> pred) {
+        while (true) {
+            try {
+                return readCheckedBigInteger(inMsg, pred);
+            }
+            catch (IllegalDataFormatException e) {
+                retry(InputMetrics.Kind.BIG_INTEGER, errMsg);
+            }
+        }
+    }
+
+    /**
+     * テキスト行を読み込み、それをBigDecimal型として解釈します。
+     *
+     * <p>書式は{@link BigDecimal#BigDecimal(String)}と同じで、
+     * 小数点と指数部を含むことができます("-1.5e-3", "1.", ".5"など)。
+     * 値は丸められず、スケールは書かれた桁数のとおりになります。
+     * {@link #readDouble()}と異なり、書かれた10進数の値を誤差なく読み込むことができます。<br>
+     * 数十万桁の数字列も分割統治法で変換するので、{@code new BigDecimal(String)}のように
+     * 桁数の2乗に比例する時間はかかりません。</p>
+     *
+     * <p>このメソッドは{@link IOException}を送出する可能性があります。
+     * これが送出されると読み込みをいったん取り消し、再入力を試行します。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     BigDecimal v = is.readBigDecimal();
+     * </pre>
+     *
+     * @exception IllegalDataFormatException
+     *            読み込んだテキスト行をBigDecimal型に構文解析できなかったとき
+     *
+     * @return    終端文字を除く行の内容をBigDecimal型に構文解析したもの
+     * @since 1.1
+     */
+    public BigDecimal readBigDecimal() {
+        return readBigDecimal("");
+    }
+
+    /**
+     * メッセージを出力した後、テキスト行を読み込み、それをBigDecimal型として解釈します。
+     * <p>このメソッドは{@link java.io.PrintStream#print(String)}を呼び出してから
+     * {@link #readBigDecimal()}を呼び出すのと同じ動作をします。</p>
+     *
+     * @param inMsg 出力するメッセージ
+     * @exception IllegalDataFormatException
+     *              読み込んだテキスト行をBigDecimal型に構文解析できなかったとき
+     *
+     * @return      終端文字を除く行の内容をBigDecimal型に構文解析したもの
+     * @since 1.1
+     */
+    public BigDecimal readBigDecimal(String inMsg) {
+        long start = startRead();
+        BigDecimal value;
+        try {
+            value = NumberParser.parseBigDecimal(readLine(inMsg));
+        }
+        catch (IllegalDataFormatException e) {
+            endRead(InputMetrics.Kind.BIG_DECIMAL, start, false);
+            throw e;
+        }
+        endRead(InputMetrics.Kind.BIG_DECIMAL, start, true);
+        return value;
+    }
+
+    /**
+     * メッセージ付きでBigDecimal型に構文解析可能なテキスト行が見つかるまで
+     * 読み込みを繰り返し、見つかったらそれをBigDecimal型に構文解析します。
+     *
+     * <p>{@link #readBigDecimal(String)}の動作に加え、読み込んだテキスト行を
+     * BigDecimal型に構文解析できなかった場合、エラーメッセージを表示し、さらに1行を読み込みます。
+     * これを構文解析に成功するまで繰り返します。</p>
+     *
+     * @param inMsg  テキスト行を読み込む前に出力するメッセージ
+     * @param errMsg 読み込んだテキスト行をBigDecimal型に構文解析できなかったときに
+     *               出力するメッセージ
+     *
+     * @return       終端文字を除く行の内容をBigDecimal型に構文解析したもの
+     * @since 1.1
+     */
+    public BigDecimal readBigDecimal(String inMsg, String errMsg) {
+        while (true) {
+            try {
+                return readBigDecimal(inMsg);
+            }
+            catch (IllegalDataFormatException e) {
+                retry(InputMetrics.Kind.BIG_DECIMAL, errMsg);
+            }
+        }
+    }
+
+    /**
+     * メッセージ付きで指定した条件式に一致するBigDecimal値に構文解析が可能な
+     * テキスト行を読み込みます。
+     *
+     * <p>{@link #readBigDecimal(String)}を呼び出した上で、
+     * 読み込まれた値が指定した条件式に一致しているか検査し、
+     * 一致している場合はそのまま返却、一致していなかった場合は
+     * 例外がスローされます。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     BigDecimal v = is.readCheckedBigDecimal({@code "input > ", x -> x.signum() >= 0});
+     * </pre>
+     *
+     * @param inMsg 出力するメッセージ
+     * @param pred  構文解析されたBigDecimal値の範囲を制限する条件式
+     * @exception IllegalDataFormatException
+     *              指定したBigDecimal値の範囲を満たしていない場合、
+     *              読み込んだテキスト行をBigDecimal型に構文解析できなかった場合
+     *
+     * @return      終端文字を除く行の内容を条件に一致した範囲のBigDecimal型に構文解析したもの
+     * @since 1.1
+     */
+    public BigDecimal readCheckedBigDecimal(String inMsg, Predicate<BigDecimal> pred) {
+        BigDecimal v = readBigDecimal(inMsg);
+
+        if (pred.test(v)) {
+            return v;
+        }
+        else {
+            throw new IllegalDataFormatException();
+        }
+    }
+
+    /**
+     * メッセージ付きで指定した条件式に一致するBigDecimal値に構文解析が可能な
+     * テキスト行が見つかるまで読み込みを繰り返します。
+     *
+     * <p>{@link #readCheckedBigDecimal(String, Predicate)}を呼び出し、
+     * 例外がスローされた場合はエラーメッセージを表示して再度読み込みます。<br>
+     * これを読み込んだBigDecimal値が条件式を満たすまで繰り返します。</p>
+     *
+     * @param inMsg  読み込む前に出力されるメッセージ
+     * @param errMsg 読み込んだテキスト行をBigDecimal型に構文解析できなかったか、
+     *               読み込んだBigDecimal値が範囲を満たしていないときに出力するメッセージ
+     *
+     * @param pred   構文解析されたBigDecimal値の範囲を制限する条件式
+     * @return       終端文字を除く行の内容を条件に一致した範囲のBigDecimal型に構文解析したもの
+     * @since 1.1
+     */
+    public BigDecimal readBigDecimalUntilMatch(String inMsg, String errMsg, Predicate<BigDecimal> pred) {
+        while (true) {
+            try {
+                return readCheckedBigDecimal(inMsg, pred);
+            }
+            catch (IllegalDataFormatException e) {
+                retry(InputMetrics.Kind.BIG_DECIMAL, errMsg);
+            }
+        }
+    }
+    /* ---------------------------------------------------------- */
+
+    /* -------------------- BOOLEAN INPUT -------------------- */
+
+    /* 読み込まれた文字列が引数で与えられた２つの正規表現に一致した場合に
+     * 対応するbooleanを返却するメソッド。
+     * truePtに一致した場合はtrueを、falsePtに一致した場合はfalseを
+     * 返却する。
+     * 文字列がtruePt,falsePtの両方を満たした場合、trueが優先的に
+     * 返却される。
+     */
+    private boolean readBoo(Pattern truePt, Pattern falsePt) {
+        long start = startRead();
+        CharSequence s = readLine("");
+
+        Matcher m_1 = truePt.matcher(s);
+        Matcher m_2 = falsePt.matcher(s);
+
+        if (m_1.matches()) {
+            endRead(InputMetrics.Kind.BOOLEAN, start, true);
+            return true;
+        }
+        else if (m_2.matches()) {
+            endRead(InputMetrics.Kind.BOOLEAN, start, true);
+            return false;
+        }
+        else {
+            endRead(InputMetrics.Kind.BOOLEAN, start, false);
+            throw new IllegalDataFormatException();
+        }
+    }
+
+    /**
+     * テキスト行を読み込み、それが"true"または"false"(大文字小文字は区別しない)
+     * に一致した場合に対応するbooleanを返却します。
+     *
+     * <p>1行の終端は改行文字 "\n"か復帰 "\r" またはその両方の
+     * 改行と復帰 "\n\r" で認識されます。</p>
+     * <p>読み込むテキスト行に終端文字は含まず、その直前の文字1行を
+     * 読み込みます。</p>
+     *
+     * <p>読み込まれたテキスト行が大文字、小文字区別せずに
      * "true"または"false"と一致した場合にのみそれぞれの文字に対応した
      * booleanを返却します。<br>
      * つまり、"true","True","tRue","trUe","truE"や"TRUE"などはすべて
@@ -1614,8 +2462,19 @@ public final class InputScanner {
      * @since 1.0
      */
     public boolean readBoolean() {
-        return readBoo(Pattern.compile("true", Pattern.CASE_INSENSITIVE),
-                       Pattern.compile("false", Pattern.CASE_INSENSITIVE));
+        long start = startRead();
+        CharSequence s = readLine("");
+        boolean value;
+        try {
+            /* 正規表現を使わず、読み込んだ行を直接 "true" と "false" に照合する */
+            value = NumberParser.parseBoolean(s);
+        }
+        catch (IllegalDataFormatException e) {
+            endRead(InputMetrics.Kind.BOOLEAN, start, false);
+            throw e;
+        }
+        endRead(InputMetrics.Kind.BOOLEAN, start, true);
+        return value;
     }
 
     /**
@@ -1645,7 +2504,7 @@ public final class InputScanner {
      * @since 1.0
      */
     public boolean readBoolean(String inMsg) {
-        System.out.print(inMsg);
+        prompt(inMsg);
         return readBoolean();
     }
 
@@ -1688,7 +2547,7 @@ public final class InputScanner {
                 return readBoolean(inMsg);
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
+                retry(InputMetrics.Kind.BOOLEAN, errMsg);
             }
         }
     }
@@ -1777,11 +2636,11 @@ public final class InputScanner {
      */
     public boolean readCheckedBoolean(String truePt, String falsePt, boolean flag) {
         if (flag) {
-            return readBoo(Pattern.compile(truePt), Pattern.compile(falsePt));
+            return readBoo(PATTERN_CACHE.compile(truePt), PATTERN_CACHE.compile(falsePt));
         }
         else {
-            return readBoo(Pattern.compile(truePt, Pattern.CASE_INSENSITIVE),
-                    Pattern.compile(falsePt, Pattern.CASE_INSENSITIVE));
+            return readBoo(PATTERN_CACHE.compile(truePt, Pattern.CASE_INSENSITIVE),
+                    PATTERN_CACHE.compile(falsePt, Pattern.CASE_INSENSITIVE));
         }
     }
 
@@ -1845,11 +2704,11 @@ public final class InputScanner {
      */
     public boolean ask(String inMsg, String truePt, String falsePt, boolean flag) {
         if (flag) {
-            return ask(inMsg, Pattern.compile(truePt), Pattern.compile(falsePt));
+            return ask(inMsg, PATTERN_CACHE.compile(truePt), PATTERN_CACHE.compile(falsePt));
         }
         else {
-            return ask(inMsg, Pattern.compile(truePt, Pattern.CASE_INSENSITIVE),
-                    Pattern.compile(falsePt, Pattern.CASE_INSENSITIVE));
+            return ask(inMsg, PATTERN_CACHE.compile(truePt, Pattern.CASE_INSENSITIVE),
+                    PATTERN_CACHE.compile(falsePt, Pattern.CASE_INSENSITIVE));
         }
     }
 
@@ -1885,7 +2744,7 @@ public final class InputScanner {
      * @since 1.0
      */
     public boolean ask(String inMsg, Pattern truePt, Pattern falsePt) {
-        System.out.print(inMsg);
+        prompt(inMsg);
         return readBoo(truePt, falsePt);
     }
 
@@ -1929,7 +2788,7 @@ public final class InputScanner {
                 return ask(inMsg, truePt, falsePt, false);
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
+                retry(InputMetrics.Kind.BOOLEAN, errMsg);
             }
         }
     }
@@ -1966,7 +2825,7 @@ public final class InputScanner {
                 return ask(inMsg, truePt, falsePt, flag);
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
+                retry(InputMetrics.Kind.BOOLEAN, errMsg);
             }
         }
     }
@@ -2012,25 +2871,1344 @@ public final class InputScanner {
                 return ask(inMsg, truePt, falsePt);
             }
             catch (IllegalDataFormatException e) {
-                System.err.println(errMsg);
+                retry(InputMetrics.Kind.BOOLEAN, errMsg);
             }
         }
     }
     /* ------------------------------------------------------- */
 
+    /* -------------------- ARRAY INPUT -------------------- */
     /**
-     * {@link IOException}を送出したときに出力するエラーメッセージを変更します。
-     * <p>{@code InputScanner}のこのメソッドを除くすべてのメソッドは
-     * {@link IOException}を送出する恐れがあります。</p>
+     * テキスト行を読み込み、区切られた複数の値をint型として解釈して配列に格納します。
      *
-     * <p>クライアントはこのメソッドを用いてエラーメッセージをセットしておくことで
-     * 実際に{@link IOException}が発生したときのエラーメッセージを任意に
-     * 設定することができます。</p>
+     * <p>1行に複数の数値が並んだ入力を、{@link #readStr()}で読み込んで分割することなく
+     * 呼び出し元が用意した配列に直接読み込みます。
+     * 読み込んだ行から部分文字列が生成されることはないので、
+     * 行列やベクトルのような入力を読み込む場合に最も効率のよい方法です。</p>
      *
-     * @param msg {@link IOException}を送出したときに出力するエラーメッセージ
-     * @since 1.0
+     * <p>値はスペースやタブなどの空白文字で区切られます。
+     * 空白文字がいくつ続いていても区切りはひとつとして扱われ、
+     * 行の先頭と末尾の空白文字は無視されます。<br>
+     * {@link #setDelimiters(String)}で区切り文字を追加した場合は、
+     * その文字でも区切られます。追加した区切り文字の前後の空白文字は無視されますが、
+     * 区切り文字が連続している場合や行の先頭、末尾にある場合は構文解析できません。</p>
+     *
+     * <p>以下、標準入力から1行に並んだ3つの値を読み込む使用例です。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     int[] values = new int[3];
+     *     int n = is.readIntArray(values);
+     * </pre>
+     *
+     * <p>上記の例では、"10 20 30"という行を読み込んだ場合、
+     * valuesには{@code {10, 20, 30}}が格納され、3が返却されます。</p>
+     *
+     * @param dst 読み込んだ値を先頭から格納する配列
+     * @exception IllegalDataFormatException
+     *            値のいずれかをint型に構文解析できなかったとき、
+     *            または値の数が配列の長さを超えていたとき
+     *
+     * @return    配列に格納した値の数
+     * @since 1.1
      */
-    public void setIOErrMsg(String msg) {
-        IOErrMsg = msg;
+    public int readIntArray(int[] dst) {
+        return readIntArray("", dst);
+    }
+
+    /**
+     * メッセージを出力した後、テキスト行を読み込み、区切られた複数の値を
+     * int型として解釈して配列に格納します。
+     *
+     * <p>このメソッドは{@link java.io.PrintStream#print(String)}を呼び出してから
+     * {@link #readIntArray(int[])}を呼び出すのと同じ動作をします。</p>
+     *
+     * @param inMsg 出力するメッセージ
+     * @param dst   読み込んだ値を先頭から格納する配列
+     * @exception IllegalDataFormatException
+     *              値のいずれかをint型に構文解析できなかったとき、
+     *              または値の数が配列の長さを超えていたとき
+     *
+     * @return      配列に格納した値の数
+     * @since 1.1
+     */
+    public int readIntArray(String inMsg, int[] dst) {
+        CharSequence line = readLine(inMsg);
+
+        int count = 0;
+        int i = skipSpaces(line, 0);
+        while (i < line.length()) {
+            int end = fieldEnd(line, i);
+            if (count == dst.length) {
+                throw new IllegalDataFormatException();
+            }
+            dst[count++] = NumberParser.parseInt(line, i, end);
+            i = nextField(line, end);
+        }
+        return count;
+    }
+
+    /**
+     * テキスト行を読み込み、区切られた複数の値をint型として解釈した配列を返却します。
+     *
+     * <p>値の数があらかじめわからない場合に使用します。
+     * 値は内部で再利用するバッファに読み込まれ、最後に値の数と同じ長さの配列に
+     * コピーされるので、生成される配列はひとつだけです。<br>
+     * 処理の詳細は{@link #readIntArray(int[])}を参照してください。</p>
+     *
+     * @exception IllegalDataFormatException
+     *            値のいずれかをint型に構文解析できなかったとき
+     *
+     * @return    読み込んだ値を格納した配列
+     * @since 1.1
+     */
+    public int[] readIntArray() {
+        return readIntArray("");
+    }
+
+    /**
+     * メッセージを出力した後、テキスト行を読み込み、区切られた複数の値を
+     * int型として解釈した配列を返却します。
+     *
+     * <p>このメソッドは{@link java.io.PrintStream#print(String)}を呼び出してから
+     * {@link #readIntArray()}を呼び出すのと同じ動作をします。</p>
+     *
+     * @param inMsg 出力するメッセージ
+     * @exception IllegalDataFormatException
+     *              値のいずれかをint型に構文解析できなかったとき
+     *
+     * @return      読み込んだ値を格納した配列
+     * @since 1.1
+     */
+    public int[] readIntArray(String inMsg) {
+        CharSequence line = readLine(inMsg);
+
+        int[] buf = intBuffer;
+        int count = 0;
+        int i = skipSpaces(line, 0);
+        while (i < line.length()) {
+            int end = fieldEnd(line, i);
+            if (count == buf.length) {
+                buf = intBuffer = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[count++] = NumberParser.parseInt(line, i, end);
+            i = nextField(line, end);
+        }
+        return Arrays.copyOf(buf, count);
+    }
+
+    /**
+     * テキスト行を読み込み、区切られた複数の値をlong型として解釈して配列に格納します。
+     *
+     * <p>処理の詳細は{@link #readIntArray(int[])}を参照してください。</p>
+     *
+     * @param dst 読み込んだ値を先頭から格納する配列
+     * @exception IllegalDataFormatException
+     *            値のいずれかをlong型に構文解析できなかったとき、
+     *            または値の数が配列の長さを超えていたとき
+     *
+     * @return    配列に格納した値の数
+     * @since 1.1
+     */
+    public int readLongArray(long[] dst) {
+        return readLongArray("", dst);
+    }
+
+    /**
+     * メッセージを出力した後、テキスト行を読み込み、区切られた複数の値を
+     * long型として解釈して配列に格納します。
+     *
+     * <p>このメソッドは{@link java.io.PrintStream#print(String)}を呼び出してから
+     * {@link #readLongArray(long[])}を呼び出すのと同じ動作をします。</p>
+     *
+     * @param inMsg 出力するメッセージ
+     * @param dst   読み込んだ値を先頭から格納する配列
+     * @exception IllegalDataFormatException
+     *              値のいずれかをlong型に構文解析できなかったとき、
+     *              または値の数が配列の長さを超えていたとき
+     *
+     * @return      配列に格納した値の数
+     * @since 1.1
+     */
+    public int readLongArray(String inMsg, long[] dst) {
+        CharSequence line = readLine(inMsg);
+
+        int count = 0;
+        int i = skipSpaces(line, 0);
+        while (i < line.length()) {
+            int end = fieldEnd(line, i);
+            if (count == dst.length) {
+                throw new IllegalDataFormatException();
+            }
+            dst[count++] = NumberParser.parseLong(line, i, end);
+            i = nextField(line, end);
+        }
+        return count;
+    }
+
+    /**
+     * テキスト行を読み込み、区切られた複数の値をlong型として解釈した配列を返却します。
+     *
+     * <p>値の数があらかじめわからない場合に使用します。
+     * 値は内部で再利用するバッファに読み込まれ、最後に値の数と同じ長さの配列に
+     * コピーされるので、生成される配列はひとつだけです。<br>
+     * 処理の詳細は{@link #readIntArray(int[])}を参照してください。</p>
+     *
+     * @exception IllegalDataFormatException
+     *            値のいずれかをlong型に構文解析できなかったとき
+     *
+     * @return    読み込んだ値を格納した配列
+     * @since 1.1
+     */
+    public long[] readLongArray() {
+        return readLongArray("");
+    }
+
+    /**
+     * メッセージを出力した後、テキスト行を読み込み、区切られた複数の値を
+     * long型として解釈した配列を返却します。
+     *
+     * <p>このメソッドは{@link java.io.PrintStream#print(String)}を呼び出してから
+     * {@link #readLongArray()}を呼び出すのと同じ動作をします。</p>
+     *
+     * @param inMsg 出力するメッセージ
+     * @exception IllegalDataFormatException
+     *              値のいずれかをlong型に構文解析できなかったとき
+     *
+     * @return      読み込んだ値を格納した配列
+     * @since 1.1
+     */
+    public long[] readLongArray(String inMsg) {
+        CharSequence line = readLine(inMsg);
+
+        long[] buf = longBuffer;
+        int count = 0;
+        int i = skipSpaces(line, 0);
+        while (i < line.length()) {
+            int end = fieldEnd(line, i);
+            if (count == buf.length) {
+                buf = longBuffer = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[count++] = NumberParser.parseLong(line, i, end);
+            i = nextField(line, end);
+        }
+        return Arrays.copyOf(buf, count);
+    }
+
+    /**
+     * テキスト行を読み込み、区切られた複数の値をdouble型として解釈して配列に格納します。
+     *
+     * <p>処理の詳細は{@link #readIntArray(int[])}を参照してください。</p>
+     *
+     * @param dst 読み込んだ値を先頭から格納する配列
+     * @exception IllegalDataFormatException
+     *            値のいずれかをdouble型に構文解析できなかったとき、
+     *            または値の数が配列の長さを超えていたとき
+     *
+     * @return    配列に格納した値の数
+     * @since 1.1
+     */
+    public int readDoubleArray(double[] dst) {
+        return readDoubleArray("", dst);
+    }
+
+    /**
+     * メッセージを出力した後、テキスト行を読み込み、区切られた複数の値を
+     * double型として解釈して配列に格納します。
+     *
+     * <p>このメソッドは{@link java.io.PrintStream#print(String)}を呼び出してから
+     * {@link #readDoubleArray(double[])}を呼び出すのと同じ動作をします。</p>
+     *
+     * @param inMsg 出力するメッセージ
+     * @param dst   読み込んだ値を先頭から格納する配列
+     * @exception IllegalDataFormatException
+     *              値のいずれかをdouble型に構文解析できなかったとき、
+     *              または値の数が配列の長さを超えていたとき
+     *
+     * @return      配列に格納した値の数
+     * @since 1.1
+     */
+    public int readDoubleArray(String inMsg, double[] dst) {
+        CharSequence line = readLine(inMsg);
+
+        int count = 0;
+        int i = skipSpaces(line, 0);
+        while (i < line.length()) {
+            int end = fieldEnd(line, i);
+            if (count == dst.length) {
+                throw new IllegalDataFormatException();
+            }
+            dst[count++] = NumberParser.parseDouble(line, i, end);
+            i = nextField(line, end);
+        }
+        return count;
+    }
+
+    /**
+     * テキスト行を読み込み、区切られた複数の値をdouble型として解釈した配列を返却します。
+     *
+     * <p>値の数があらかじめわからない場合に使用します。
+     * 値は内部で再利用するバッファに読み込まれ、最後に値の数と同じ長さの配列に
+     * コピーされるので、生成される配列はひとつだけです。<br>
+     * 処理の詳細は{@link #readIntArray(int[])}を参照してください。</p>
+     *
+     * @exception IllegalDataFormatException
+     *            値のいずれかをdouble型に構文解析できなかったとき
+     *
+     * @return    読み込んだ値を格納した配列
+     * @since 1.1
+     */
+    public double[] readDoubleArray() {
+        return readDoubleArray("");
+    }
+
+    /**
+     * メッセージを出力した後、テキスト行を読み込み、区切られた複数の値を
+     * double型として解釈した配列を返却します。
+     *
+     * <p>このメソッドは{@link java.io.PrintStream#print(String)}を呼び出してから
+     * {@link #readDoubleArray()}を呼び出すのと同じ動作をします。</p>
+     *
+     * @param inMsg 出力するメッセージ
+     * @exception IllegalDataFormatException
+     *              値のいずれかをdouble型に構文解析できなかったとき
+     *
+     * @return      読み込んだ値を格納した配列
+     * @since 1.1
+     */
+    public double[] readDoubleArray(String inMsg) {
+        CharSequence line = readLine(inMsg);
+
+        double[] buf = doubleBuffer;
+        int count = 0;
+        int i = skipSpaces(line, 0);
+        while (i < line.length()) {
+            int end = fieldEnd(line, i);
+            if (count == buf.length) {
+                buf = doubleBuffer = Arrays.copyOf(buf, buf.length * 2);
+            }
+            buf[count++] = NumberParser.parseDouble(line, i, end);
+            i = nextField(line, end);
+        }
+        return Arrays.copyOf(buf, count);
+    }
+
+    /**
+     * {@link #readIntArray(int[])}などで値を区切る文字を追加します。
+     *
+     * <p>空白文字は常に区切り文字として扱われます。
+     * 引数に含まれる各文字が空白文字に加えて区切り文字として扱われます。<br>
+     * 空文字 "" を与えると、空白文字のみで区切る初期状態に戻ります。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     is.setDelimiters(",;");
+     *     int[] values = is.readIntArray();    // "1, 2;3" -&gt; {1, 2, 3}
+     * </pre>
+     *
+     * @param delimiters 区切り文字として扱う文字を並べた文字列
+     * @since 1.1
+     */
+    public void setDelimiters(String delimiters) {
+        this.delimiters = delimiters.toCharArray();
+    }
+
+    /* i から空白文字を読み飛ばした位置を返却します。 */
+    private static int skipSpaces(CharSequence line, int i) {
+        while (i < line.length() && line.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    /* i から始まる値の終わり(空白文字か区切り文字の位置)を返却します。 */
+    private int fieldEnd(CharSequence line, int i) {
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c <= ' ' || isDelimiter(c)) {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /* 値の終わり end から区切りを読み飛ばし、次の値の先頭の位置を返却します。
+     * 追加した区切り文字は値と値の間にひとつだけ置くことができ、
+     * 区切り文字の後に値がなければ構文解析できません。
+     */
+    private int nextField(CharSequence line, int end) {
+        int i = skipSpaces(line, end);
+        if (i < line.length() && isDelimiter(line.charAt(i))) {
+            i = skipSpaces(line, i + 1);
+            if (i == line.length()) {
+                throw new IllegalDataFormatException();
+            }
+        }
+        return i;
+    }
+
+    private boolean isDelimiter(char c) {
+        for (char d : delimiters) {
+            if (c == d) {
+                return true;
+            }
+        }
+        return false;
+    }
+    /* ----------------------------------------------------- */
+
+    /* -------------------- TOKEN INPUT -------------------- */
+
+    /**
+     * 空白文字で区切られたトークンを読み込み、それらをint型として解釈したストリームを返却します。
+     *
+     * <p>トークンは行をまたいで読み込まれ、スペース、タブ、改行などの空白文字が
+     * いくつ続いていても区切りとして扱われます。<br>
+     * ストリームは遅延評価され、要素が要求されるたびにトークンをひとつ読み込みます。
+     * ストリームの終わりに達するとストリームも終了します。</p>
+     *
+     * <p>トークンは入力元のバッファから直接構文解析されるので、
+     * トークンごとに{@code String}が生成されることはありません。
+     * 大量の数値を読み込む場合は{@link #readInt()}を繰り返し呼び出すよりも効率的です。</p>
+     *
+     * <p>以下、標準入力から読み込んだ数値の合計を求める使用例です。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     long sum = is.ints().asLongStream().sum();
+     * </pre>
+     *
+     * <p>トークンの直後の区切り文字は消費されません。
+     * ストリームの使用後に{@link #readStr()}を呼び出した場合、
+     * 最後に読み込んだトークンの直後から行の終わりまでが読み込まれます。</p>
+     *
+     * @exception IllegalDataFormatException
+     *            読み込んだトークンをint型に構文解析できなかったとき
+     *
+     * @return    読み込んだトークンをint型に構文解析した値のストリーム
+     * @since 1.1
+     */
+    public IntStream ints() {
+        Spliterator.OfInt spliterator = new Spliterators.AbstractIntSpliterator(Long.MAX_VALUE, TOKEN_CHARACTERISTICS) {
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                if (binary != null) {
+                    if (!hasMoreBinary()) {
+                        return false;
+                    }
+                    action.accept(readBinaryInt());
+                    return true;
+                }
+                CharSequence token = readToken();
+                if (token == null) {
+                    return false;
+                }
+                action.accept(NumberParser.parseInt(token));
+                return true;
+            }
+        };
+        return StreamSupport.intStream(spliterator, false);
+    }
+
+    /**
+     * 空白文字で区切られたトークンを読み込み、それらをlong型として解釈したストリームを返却します。
+     *
+     * <p>処理の詳細は{@link #ints()}を参照してください。</p>
+     *
+     * @exception IllegalDataFormatException
+     *            読み込んだトークンをlong型に構文解析できなかったとき
+     *
+     * @return    読み込んだトークンをlong型に構文解析した値のストリーム
+     * @since 1.1
+     */
+    public LongStream longs() {
+        Spliterator.OfLong spliterator = new Spliterators.AbstractLongSpliterator(Long.MAX_VALUE, TOKEN_CHARACTERISTICS) {
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                if (binary != null) {
+                    if (!hasMoreBinary()) {
+                        return false;
+                    }
+                    action.accept(readBinaryLong());
+                    return true;
+                }
+                CharSequence token = readToken();
+                if (token == null) {
+                    return false;
+                }
+                action.accept(NumberParser.parseLong(token));
+                return true;
+            }
+        };
+        return StreamSupport.longStream(spliterator, false);
+    }
+
+    /**
+     * 空白文字で区切られたトークンを読み込み、それらをdouble型として解釈したストリームを返却します。
+     *
+     * <p>処理の詳細は{@link #ints()}を参照してください。</p>
+     *
+     * @exception IllegalDataFormatException
+     *            読み込んだトークンをdouble型に構文解析できなかったとき
+     *
+     * @return    読み込んだトークンをdouble型に構文解析した値のストリーム
+     * @since 1.1
+     */
+    public DoubleStream doubles() {
+        Spliterator.OfDouble spliterator = new Spliterators.AbstractDoubleSpliterator(Long.MAX_VALUE, TOKEN_CHARACTERISTICS) {
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                if (binary != null) {
+                    if (!hasMoreBinary()) {
+                        return false;
+                    }
+                    action.accept(readBinaryDouble());
+                    return true;
+                }
+                CharSequence token = readToken();
+                if (token == null) {
+                    return false;
+                }
+                action.accept(NumberParser.parseDouble(token));
+                return true;
+            }
+        };
+        return StreamSupport.doubleStream(spliterator, false);
+    }
+
+    /**
+     * 空白文字で区切られたトークンを読み込み、それらを文字列として返却するストリームを返却します。
+     *
+     * <p>処理の詳細は{@link #ints()}を参照してください。<br>
+     * このストリームはトークンごとに{@code String}を生成します。</p>
+     *
+     * @return 読み込んだトークンのストリーム
+     * @since 1.1
+     */
+    public Stream<String> tokens() {
+        Spliterator<String> spliterator = new Spliterators.AbstractSpliterator<String>(Long.MAX_VALUE, TOKEN_CHARACTERISTICS) {
+            @Override
+            public boolean tryAdvance(Consumer<? super String> action) {
+                CharSequence token = readToken();
+                if (token == null) {
+                    return false;
+                }
+                action.accept(token.toString());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /* バイナリ形式の入力に次の値があるか確認します。 */
+    private boolean hasMoreBinary() {
+        while (true) {
+            try {
+                return binary.hasMore();
+            }
+            catch (IOException e) {
+                ioError();
+            }
+        }
+    }
+
+    /* バイナリ形式のint値を読み込みます。 */
+    private int readBinaryInt() {
+        while (true) {
+            try {
+                return binary.readInt();
+            }
+            catch (IOException e) {
+                ioError();
+            }
+        }
+    }
+
+    /* バイナリ形式のlong値を読み込みます。 */
+    private long readBinaryLong() {
+        while (true) {
+            try {
+                return binary.readLong();
+            }
+            catch (IOException e) {
+                ioError();
+            }
+        }
+    }
+
+    /* バイナリ形式のdouble値を読み込みます。 */
+    private double readBinaryDouble() {
+        while (true) {
+            try {
+                return binary.readDouble();
+            }
+            catch (IOException e) {
+                ioError();
+            }
+        }
+    }
+
+    /* 入力元からトークンをひとつ読み込みます。
+     * IOExceptionが発生した場合はエラーメッセージを出力して再度読み込みを試行します。
+     * 返却されるCharSequenceは次に読み込むまでの間だけ有効です。
+     */
+    private CharSequence readToken() {
+        while (true) {
+            try {
+                if (metrics == null) {
+                    return source.readToken();
+                }
+                long start = System.nanoTime();
+                CharSequence token = source.readToken();
+                metrics.recordToken(token, System.nanoTime() - start);
+                return token;
+            }
+            catch (IOException e) {
+                ioError();
+            }
+        }
+    }
+    /* ----------------------------------------------------- */
+
+    /* -------------------- PREFETCH -------------------- */
+    /**
+     * 入力の先読みを開始します。
+     *
+     * <p>先読みを開始すると、専用のデーモンスレッドが入力元からテキスト行を読み込み、
+     * 最大で{@code capacity}行までバッファに蓄えます。
+     * 以降のすべての読み込みメソッドはこのバッファから行を取り出すので、
+     * 数値の構文解析などの処理と、パイプやファイルからの読み込みが並行して行われます。<br>
+     * バッファが一杯になると先読みは行が読み込まれるまで待機するので、
+     * 入力が大きい場合でもメモリ使用量は{@code capacity}行分に抑えられます。</p>
+     *
+     * <p>先読み中の入力元を読み込むことができるのは、このInputScannerだけです。
+     * 先読み中に他の方法で同じ入力元を読み込んだ場合の動作は保証されません。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner(System.in);
+     *     is.startPrefetch(1024);
+     *     long sum = 0;
+     *     for (int i = 0; i &lt; n; i++) {
+     *         sum += is.readInt();
+     *     }
+     *     is.stopPrefetch();
+     * </pre>
+     *
+     * @param capacity 先読みするテキスト行の最大数
+     * @exception IllegalArgumentException {@code capacity}が0以下のとき
+     * @exception IllegalStateException    既に先読みを開始しているとき、
+     *                                     またはバイナリ形式で読み込んでいるとき
+     * @since 1.1
+     */
+    public void startPrefetch(int capacity) {
+        if (prefetch != null) {
+            throw new IllegalStateException("Prefetch already started");
+        }
+        if (binary != null) {
+            throw new IllegalStateException("Prefetch is not supported in binary format");
+        }
+        prefetch = new PrefetchSource(source, capacity);
+        /* 入力を待つのは先読み用のスレッドではなく読み込みメソッドなので、待つ側でフラッシュする */
+        source.setFlushable(null);
+        prefetch.setFlushable(output);
+        source = prefetch;
+    }
+
+    /**
+     * 入力の先読みを終了します。
+     *
+     * <p>先読み用のスレッドは停止し、既に先読みされているテキスト行は引き続き
+     * 読み込むことができます。それらをすべて読み込んだ後は、
+     * 先読みを開始する前と同じく入力元から直接読み込みます。<br>
+     * 先読みを開始していない場合は何もしません。</p>
+     *
+     * <p>先読み用のスレッドが入力元からの読み込みで待機している場合、
+     * スレッドはその読み込みが完了した時点で終了します。
+     * このメソッドはスレッドの終了を待たずに復帰し、先読み済みの行を読み終えた後の
+     * 読み込みメソッドがスレッドの終了を待ちます。
+     * スレッドが読み込んでいた行は失われず、その読み込みメソッドで読み込まれます。</p>
+     *
+     * @since 1.1
+     */
+    public void stopPrefetch() {
+        if (prefetch != null) {
+            stoppedStallCount += prefetch.getStallCount();
+            source = prefetch.close();
+            prefetch = null;
+        }
+    }
+
+    /**
+     * 先読み中に、読み込みメソッドがテキスト行の到着を待った回数を返却します。
+     *
+     * <p>この回数が読み込んだ行数に比べて十分に小さければ、
+     * 読み込みと構文解析がうまく並行して行われていることを表します。
+     * 大きい場合は入力元からの読み込みが処理に追いついていません。<br>
+     * {@link #stopPrefetch()}で終了した先読みの回数も含まれるので、先読みを終了した後でも取得できます。
+     * 一度も先読みを開始していない場合は0を返却します。</p>
+     *
+     * @return 先読みしたテキスト行の到着を待った回数
+     * @since 1.1
+     */
+    public long getPrefetchStallCount() {
+        return prefetch == null ? stoppedStallCount : stoppedStallCount + prefetch.getStallCount();
+    }
+    /* -------------------------------------------------- */
+
+    /* -------------------- TIMED INPUT -------------------- */
+    /**
+     * メッセージを出力し、制限時間内にテキスト行を読み込みます。
+     *
+     * <p>{@link #readStr(String)}と同じ動作をしますが、
+     * {@code timeout}が経過してもテキスト行が読み込めなかった場合は
+     * {@link InputTimeoutException}を送出して復帰します。
+     * 制限時間の詳細は{@link #readInt(String, String, long, TimeUnit)}を参照してください。</p>
+     *
+     * @param msg     出力するメッセージ
+     * @param timeout 制限時間
+     * @param unit    {@code timeout}の単位
+     * @exception InputTimeoutException 制限時間内に読み込めなかったとき
+     *
+     * @return        終端文字を除く行の内容を含む文字列。
+     *                入力の終わりに達している場合はnull
+     * @since 1.1
+     */
+    public String readStr(String msg, long timeout, TimeUnit unit) {
+        long start = startRead();
+        CharSequence line = readLine(msg, deadline(timeout, unit));
+        endRead(InputMetrics.Kind.STRING, start, true);
+        return line == null ? null : toStr(line);
+    }
+
+    /**
+     * メッセージを出力し、制限時間内にテキスト行を読み込みます。
+     * 時間切れになった場合は{@code defaultValue}を返却します。
+     *
+     * @param msg          出力するメッセージ
+     * @param timeout      制限時間
+     * @param unit         {@code timeout}の単位
+     * @param defaultValue 時間切れになったときに返却する文字列
+     *
+     * @return             終端文字を除く行の内容を含む文字列。
+     *                     入力の終わりに達している場合はnull
+     * @since 1.1
+     */
+    public String readStr(String msg, long timeout, TimeUnit unit, String defaultValue) {
+        try {
+            return readStr(msg, timeout, unit);
+        }
+        catch (InputTimeoutException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 制限時間内に正規表現に一致したテキスト行が見つかるまで読み込みを繰り返します。
+     *
+     * <p>{@link #readStrUntilMatch(String, String, String...)}と同じ動作をしますが、
+     * 制限時間内に一致するテキスト行が読み込めなかった場合は
+     * {@link InputTimeoutException}を送出します。
+     * 制限時間の詳細は{@link #readInt(String, String, long, TimeUnit)}を参照してください。<br>
+     * 一致するテキスト行が見つかる前に入力の終わりに達した場合はnullを返却します。</p>
+     *
+     * @param inMsg    テキスト行を読み込む前に出力するメッセージ
+     * @param errMsg   正規表現に一致しなかったときに出力するエラーメッセージ
+     * @param timeout  読み込み全体の制限時間
+     * @param unit     {@code timeout}の単位
+     * @param patterns 正規表現を表現する文字列
+     * @exception InputTimeoutException 制限時間内に読み込めなかったとき
+     *
+     * @return         正規表現に一致した、終端文字を除く行の内容を含む文字列。
+     *                 入力の終わりに達した場合はnull
+     * @since 1.1
+     */
+    public String readStrUntilMatch(String inMsg, String errMsg, long timeout, TimeUnit unit, String... patterns) {
+        PatternSet set = PATTERN_CACHE.compileSet(patterns);
+        long deadline = deadline(timeout, unit);
+        while (true) {
+            long start = startRead();
+            CharSequence s = readLine(inMsg, deadline);
+            if (s == null) {
+                endRead(InputMetrics.Kind.STRING, start, true);
+                return null;
+            }
+            boolean flag = set.matches(s);
+            endRead(InputMetrics.Kind.STRING, start, flag);
+            if (flag) {
+                return toStr(s);
+            }
+            retry(InputMetrics.Kind.STRING, errMsg);
+        }
+    }
+
+    /**
+     * 制限時間内にInteger正規表現に一致したテキスト行が見つかるまで
+     * 読み込みを繰り返し、見つかったらそれをint型に構文解析します。
+     *
+     * <p>{@link #readInt(String, String)}と同じ動作をしますが、
+     * 最初のメッセージを出力してから{@code timeout}が経過しても
+     * 構文解析できるテキスト行が読み込めなかった場合は、
+     * {@link InputTimeoutException}を送出して復帰します。
+     * 制限時間は再試行のたびに延長されることはなく、読み込み全体に対して適用されます。</p>
+     *
+     * <p>制限時間付きの読み込みは、1行だけを読み込む読み込み用のスレッドを使用して行われます。
+     * スレッドは行を読み込むと終了するので、先の行を読み込んだり、
+     * メソッドが復帰した後も入力元を読み込み続けたりすることはありません。<br>
+     * 時間切れになった場合、スレッドは入力途中の行が届くまで残ります。
+     * その行は失われず、この{@code InputScanner}の次の読み込みで読み込まれますが、
+     * 同じ入力元を別の方法で読み込んでいる場合、その行は別の方法では読み込まれません。<br>
+     * {@link #startPrefetch(int)}で先読みを開始している場合は、先読みされた行から読み込みます。
+     * この動作は制限時間付きのすべての読み込みメソッドで共通です。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     try {
+     *         int i = is.readInt({@code "input > "}, "error try again.", 30, TimeUnit.SECONDS);
+     *     }
+     *     catch (InputTimeoutException e) {
+     *         // 30秒以内に入力されなかった
+     *     }
+     * </pre>
+     *
+     * @param inMsg   テキスト行を読み込む前に出力するメッセージ
+     * @param errMsg  読み込んだテキスト行をint型に構文解析できなかったときに
+     *                出力するメッセージ
+     * @param timeout 読み込み全体の制限時間
+     * @param unit    {@code timeout}の単位
+     * @exception NoSuchElementException 値を読み込む前に入力の終わりに達したとき
+     * @exception InputTimeoutException 制限時間内に読み込めなかったとき
+     *
+     * @return        終端文字を除く行の内容をint型に構文解析したもの
+     * @since 1.1
+     */
+    public int readInt(String inMsg, String errMsg, long timeout, TimeUnit unit) {
+        long deadline = deadline(timeout, unit);
+        while (true) {
+            long start = startRead();
+            CharSequence s = readLine(inMsg, deadline);
+            if (s == null) {
+                throw endOfInput(InputMetrics.Kind.INT, start);
+            }
+            int value;
+            try {
+                value = NumberParser.parseInt(s);
+            }
+            catch (IllegalDataFormatException e) {
+                endRead(InputMetrics.Kind.INT, start, false);
+                retry(InputMetrics.Kind.INT, errMsg);
+                continue;
+            }
+            endRead(InputMetrics.Kind.INT, start, true);
+            return value;
+        }
+    }
+
+    /**
+     * 制限時間内にInteger正規表現に一致したテキスト行が見つかるまで
+     * 読み込みを繰り返し、見つかったらそれをint型に構文解析します。
+     * 時間切れになった場合は{@code defaultValue}を返却します。
+     *
+     * <p>このメソッドは{@link #readInt(String, String, long, TimeUnit)}と同じ動作をしますが、
+     * 時間切れになった場合に例外を送出しません。</p>
+     *
+     * @param inMsg        テキスト行を読み込む前に出力するメッセージ
+     * @param errMsg       読み込んだテキスト行をint型に構文解析できなかったときに
+     *                     出力するメッセージ
+     * @param timeout      読み込み全体の制限時間
+     * @param unit         {@code timeout}の単位
+     * @param defaultValue 時間切れになったときに返却する値
+     * @exception NoSuchElementException 値を読み込む前に入力の終わりに達したとき
+     *
+     * @return             終端文字を除く行の内容をint型に構文解析したもの
+     * @since 1.1
+     */
+    public int readInt(String inMsg, String errMsg, long timeout, TimeUnit unit, int defaultValue) {
+        try {
+            return readInt(inMsg, errMsg, timeout, unit);
+        }
+        catch (InputTimeoutException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 制限時間内にLong正規表現に一致したテキスト行が見つかるまで
+     * 読み込みを繰り返し、見つかったらそれをlong型に構文解析します。
+     *
+     * <p>{@link #readLong(String, String)}と同じ動作をしますが、
+     * 制限時間内に読み込めなかった場合は{@link InputTimeoutException}を送出します。
+     * 制限時間の詳細は{@link #readInt(String, String, long, TimeUnit)}を参照してください。</p>
+     *
+     * @param inMsg   テキスト行を読み込む前に出力するメッセージ
+     * @param errMsg  読み込んだテキスト行をlong型に構文解析できなかったときに
+     *                出力するメッセージ
+     * @param timeout 読み込み全体の制限時間
+     * @param unit    {@code timeout}の単位
+     * @exception NoSuchElementException 値を読み込む前に入力の終わりに達したとき
+     * @exception InputTimeoutException 制限時間内に読み込めなかったとき
+     *
+     * @return        終端文字を除く行の内容をlong型に構文解析したもの
+     * @since 1.1
+     */
+    public long readLong(String inMsg, String errMsg, long timeout, TimeUnit unit) {
+        long deadline = deadline(timeout, unit);
+        while (true) {
+            long start = startRead();
+            CharSequence s = readLine(inMsg, deadline);
+            if (s == null) {
+                throw endOfInput(InputMetrics.Kind.LONG, start);
+            }
+            long value;
+            try {
+                value = NumberParser.parseLong(s);
+            }
+            catch (IllegalDataFormatException e) {
+                endRead(InputMetrics.Kind.LONG, start, false);
+                retry(InputMetrics.Kind.LONG, errMsg);
+                continue;
+            }
+            endRead(InputMetrics.Kind.LONG, start, true);
+            return value;
+        }
+    }
+
+    /**
+     * 制限時間内にLong正規表現に一致したテキスト行が見つかるまで
+     * 読み込みを繰り返し、見つかったらそれをlong型に構文解析します。
+     * 時間切れになった場合は{@code defaultValue}を返却します。
+     *
+     * <p>このメソッドは{@link #readLong(String, String, long, TimeUnit)}と同じ動作をしますが、
+     * 時間切れになった場合に例外を送出しません。</p>
+     *
+     * @param inMsg        テキスト行を読み込む前に出力するメッセージ
+     * @param errMsg       読み込んだテキスト行をlong型に構文解析できなかったときに
+     *                     出力するメッセージ
+     * @param timeout      読み込み全体の制限時間
+     * @param unit         {@code timeout}の単位
+     * @param defaultValue 時間切れになったときに返却する値
+     * @exception NoSuchElementException 値を読み込む前に入力の終わりに達したとき
+     *
+     * @return             終端文字を除く行の内容をlong型に構文解析したもの
+     * @since 1.1
+     */
+    public long readLong(String inMsg, String errMsg, long timeout, TimeUnit unit, long defaultValue) {
+        try {
+            return readLong(inMsg, errMsg, timeout, unit);
+        }
+        catch (InputTimeoutException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 制限時間内にDouble正規表現に一致したテキスト行が見つかるまで
+     * 読み込みを繰り返し、見つかったらそれをdouble型に構文解析します。
+     *
+     * <p>{@link #readDouble(String, String)}と同じ動作をしますが、
+     * 制限時間内に読み込めなかった場合は{@link InputTimeoutException}を送出します。
+     * 制限時間の詳細は{@link #readInt(String, String, long, TimeUnit)}を参照してください。</p>
+     *
+     * @param inMsg   テキスト行を読み込む前に出力するメッセージ
+     * @param errMsg  読み込んだテキスト行をdouble型に構文解析できなかったときに
+     *                出力するメッセージ
+     * @param timeout 読み込み全体の制限時間
+     * @param unit    {@code timeout}の単位
+     * @exception NoSuchElementException 値を読み込む前に入力の終わりに達したとき
+     * @exception InputTimeoutException 制限時間内に読み込めなかったとき
+     *
+     * @return        終端文字を除く行の内容をdouble型に構文解析したもの
+     * @since 1.1
+     */
+    public double readDouble(String inMsg, String errMsg, long timeout, TimeUnit unit) {
+        long deadline = deadline(timeout, unit);
+        while (true) {
+            long start = startRead();
+            CharSequence s = readLine(inMsg, deadline);
+            if (s == null) {
+                throw endOfInput(InputMetrics.Kind.DOUBLE, start);
+            }
+            double value;
+            try {
+                value = NumberParser.parseDouble(s);
+            }
+            catch (IllegalDataFormatException e) {
+                endRead(InputMetrics.Kind.DOUBLE, start, false);
+                retry(InputMetrics.Kind.DOUBLE, errMsg);
+                continue;
+            }
+            endRead(InputMetrics.Kind.DOUBLE, start, true);
+            return value;
+        }
+    }
+
+    /**
+     * 制限時間内にDouble正規表現に一致したテキスト行が見つかるまで
+     * 読み込みを繰り返し、見つかったらそれをdouble型に構文解析します。
+     * 時間切れになった場合は{@code defaultValue}を返却します。
+     *
+     * <p>このメソッドは{@link #readDouble(String, String, long, TimeUnit)}と同じ動作をしますが、
+     * 時間切れになった場合に例外を送出しません。</p>
+     *
+     * @param inMsg        テキスト行を読み込む前に出力するメッセージ
+     * @param errMsg       読み込んだテキスト行をdouble型に構文解析できなかったときに
+     *                     出力するメッセージ
+     * @param timeout      読み込み全体の制限時間
+     * @param unit         {@code timeout}の単位
+     * @param defaultValue 時間切れになったときに返却する値
+     * @exception NoSuchElementException 値を読み込む前に入力の終わりに達したとき
+     *
+     * @return             終端文字を除く行の内容をdouble型に構文解析したもの
+     * @since 1.1
+     */
+    public double readDouble(String inMsg, String errMsg, long timeout, TimeUnit unit, double defaultValue) {
+        try {
+            return readDouble(inMsg, errMsg, timeout, unit);
+        }
+        catch (InputTimeoutException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 制限時間内に指定した条件式に一致するint値に構文解析が可能な
+     * テキスト行が見つかるまで読み込みを繰り返します。
+     *
+     * <p>{@link #readIntUntilMatchAs(String, String, IntPredicate)}と同じ動作をしますが、
+     * 制限時間内に条件式に一致する値が読み込めなかった場合は
+     * {@link InputTimeoutException}を送出します。
+     * 制限時間の詳細は{@link #readInt(String, String, long, TimeUnit)}を参照してください。</p>
+     *
+     * @param inMsg   読み込む前に出力されるメッセージ
+     * @param errMsg  読み込んだテキスト行をint型に構文解析できなかったか、
+     *                読み込んだint値が範囲を満たしていないときに出力するメッセージ
+     * @param pred    構文解析されたint値の範囲を制限する条件式
+     * @param timeout 読み込み全体の制限時間
+     * @param unit    {@code timeout}の単位
+     * @exception NoSuchElementException 値を読み込む前に入力の終わりに達したとき
+     * @exception InputTimeoutException 制限時間内に読み込めなかったとき
+     *
+     * @return        終端文字を除く行の内容を条件に一致した範囲のint型に構文解析したもの
+     * @since 1.1
+     */
+    public int readIntUntilMatchAs(String inMsg, String errMsg, IntPredicate pred, long timeout, TimeUnit unit) {
+        long deadline = deadline(timeout, unit);
+        while (true) {
+            long start = startRead();
+            CharSequence s = readLine(inMsg, deadline);
+            if (s == null) {
+                throw endOfInput(InputMetrics.Kind.INT, start);
+            }
+            boolean flag;
+            int i = 0;
+            try {
+                i = NumberParser.parseInt(s);
+                flag = pred.test(i);
+            }
+            catch (IllegalDataFormatException e) {
+                /* 条件式に一致しなかった場合と同じく再試行する */
+                flag = false;
+            }
+            endRead(InputMetrics.Kind.INT, start, flag);
+            if (flag) {
+                return i;
+            }
+            retry(InputMetrics.Kind.INT, errMsg);
+        }
+    }
+
+    /* 数値を読み込む前に入力の終わりに達した試行を集計し、送出する例外を返却します。 */
+    private NoSuchElementException endOfInput(InputMetrics.Kind kind, long start) {
+        endRead(kind, start, false);
+        return new NoSuchElementException("End of input");
+    }
+
+    /* 制限時間から System.nanoTime() を基準にした期限を求めます。 */
+    private static long deadline(long timeout, TimeUnit unit) {
+        return System.nanoTime() + unit.toNanos(timeout);
+    }
+
+    /* 期限までにテキスト行を読み込みます。 */
+    private CharSequence readLine(String msg, long deadline) {
+        if (binary != null) {
+            throw new IllegalStateException("Timed read is not supported in binary format");
+        }
+        while (true) {
+            try {
+                prompt(msg);
+                if (metrics == null) {
+                    return readLine(deadline - System.nanoTime());
+                }
+                long start = System.nanoTime();
+                try {
+                    CharSequence line = readLine(deadline - start);
+                    metrics.recordLine(line, System.nanoTime() - start);
+                    return line;
+                }
+                catch (InputTimeoutException e) {
+                    metrics.recordLine(null, System.nanoTime() - start);
+                    throw e;
+                }
+            }
+            catch (IOException e) {
+                ioError();
+            }
+        }
+    }
+    /* 先読み中であれば先読みした行から、そうでなければ読み込み用のスレッドで1行読み込みます。 */
+    private CharSequence readLine(long nanos) throws IOException {
+        if (prefetch != null) {
+            return prefetch.readLine(nanos);
+        }
+        /* 先読みの終了などで入力元が置き換えられていれば、新しい入力元を包み直す */
+        if (timed == null || source != timed) {
+            timed = new TimedSource(source);
+            timed.setFlushable(output);
+            source = timed;
+        }
+        return timed.readLine(nanos);
+    }
+    /* ----------------------------------------------------- */
+
+    /* -------------------- METRICS -------------------- */
+    /**
+     * 読み込みの集計を開始し、集計結果を保持する{@link InputMetrics}を返却します。
+     *
+     * <p>集計を開始すると、読み込んだ行数や文字数、入力元からの読み込みで待機した時間、
+     * 読み込む型ごとの試行回数、構文解析の失敗回数、再試行回数、
+     * 1回の試行にかかった時間の分布が集計されます。
+     * 集計項目の詳細は{@link InputMetrics}を参照してください。<br>
+     * 既に集計を開始している場合は、集計中の{@link InputMetrics}を返却します。</p>
+     *
+     * <p>集計を開始していない場合、各読み込みメソッドは集計が無効であることを
+     * 確認するだけなので、性能への影響はほとんどありません。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     InputMetrics metrics = is.enableMetrics();
+     *     int i = is.readIntUntilMatch({@code "input > "}, "error try again.", x {@code ->} x {@code >} 0);
+     *     System.out.println(metrics.snapshot().getRetries(InputMetrics.Kind.INT));
+     * </pre>
+     *
+     * @return 集計結果を保持するInputMetrics
+     * @since 1.1
+     */
+    public InputMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new InputMetrics();
+        }
+        return metrics;
+    }
+
+    /**
+     * 読み込みの集計を終了します。
+     *
+     * <p>それまでの集計結果は{@link #enableMetrics()}が返却した{@link InputMetrics}に
+     * 残りますが、以降の読み込みは集計されません。
+     * JMXに登録している場合、登録は解除されません。</p>
+     *
+     * @since 1.1
+     */
+    public void disableMetrics() {
+        metrics = null;
+    }
+
+    /**
+     * 集計中の{@link InputMetrics}を返却します。
+     *
+     * @return 集計中のInputMetrics、集計を開始していない場合はnull
+     * @since 1.1
+     */
+    public InputMetrics getMetrics() {
+        return metrics;
+    }
+
+    /* 集計を開始していれば試行の開始時刻を返却します。 */
+    private long startRead() {
+        timing = metrics != null;
+        return timing ? System.nanoTime() : 0;
+    }
+
+    /* 試行の結果を集計します。試行の途中で集計を開始した場合は集計しません。 */
+    private void endRead(InputMetrics.Kind kind, long start, boolean success) {
+        if (timing && metrics != null) {
+            metrics.recordRead(kind, System.nanoTime() - start, success);
+        }
+    }
+
+    /* 再試行を集計し、エラーメッセージを出力します。 */
+    private void retry(InputMetrics.Kind kind, String errMsg) {
+        if (metrics != null) {
+            metrics.recordRetry(kind);
+        }
+        if (!quiet) {
+            System.err.println(errMsg);
+        }
+    }
+
+    /* 読み込んだ行の内容を文字列にします。表が有効であれば正規のインスタンスを返却します。 */
+    private String toStr(CharSequence s) {
+        return internTable == null ? s.toString() : internTable.intern(s);
+    }
+
+    /* メッセージを出力します。空文字の出力はロックとエンコードを伴うだけなので省略します。 */
+    private void prompt(String msg) {
+        if (quiet || msg.isEmpty()) {
+            return;
+        }
+        if (output != null) {
+            output.print(msg);
+        }
+        else {
+            System.out.print(msg);
+        }
+    }
+
+    /* IOExceptionの発生を集計し、エラーメッセージを出力します。 */
+    private void ioError() {
+        if (metrics != null) {
+            metrics.recordIOException();
+        }
+        if (!quiet) {
+            System.err.println(IOErrMsg);
+        }
+    }
+    /* ------------------------------------------------- */
+
+    /* -------------------- INTERN -------------------- */
+    /**
+     * 読み込んだ文字列の重複の除去を、指定した上限の表で有効にし、その表を返却します。
+     *
+     * <p>有効にすると、{@link #readStr()}, {@link #readCheckedStr(String, String...)},
+     * {@link #readStrUntilMatch(String, String, String...)}と、それらの制限時間付きの読み込みメソッドは、
+     * 読み込んだ行の内容から{@link String}を生成する前に表を検索し、
+     * 同じ内容の文字列が既にあればそのインスタンスを返却します。<br>
+     * 同じ文字列が繰り返し入力される場合に文字列の生成を省くことができ、
+     * 返却された文字列を{@code ==}で比較することもできます。
+     * 表の動作の詳細は{@link StringInternTable}を参照してください。</p>
+     *
+     * <p>既に有効にしている場合は、それまでの表を破棄して新しい表を作成します。</p>
+     *
+     * <pre>
+     *     InputScanner is = new InputScanner();
+     *     StringInternTable table = is.enableInterning(1024);
+     *     ...
+     *     System.out.println(table.size() + " strings, hit rate " + table.getHitRate());
+     * </pre>
+     *
+     * @param capacity 表に保持する文字列の最大数
+     * @exception IllegalArgumentException {@code capacity}が0以下のとき
+     *
+     * @return         作成した表
+     * @since 1.1
+     */
+    public StringInternTable enableInterning(int capacity) {
+        internTable = new StringInternTable(capacity);
+        return internTable;
+    }
+
+    /**
+     * 読み込んだ文字列の重複の除去を無効にします。
+     * 以降、文字列を返却するメソッドは読み込むたびに新しい{@link String}を生成します。
+     *
+     * @since 1.1
+     */
+    public void disableInterning() {
+        internTable = null;
+    }
+
+    /**
+     * 重複の除去に使用している表を返却します。
+     *
+     * @return 重複の除去に使用している表、無効にしている場合はnull
+     * @since 1.1
+     */
+    public StringInternTable getInternTable() {
+        return internTable;
+    }
+    /* ------------------------------------------------ */
+
+    /* -------------------- OUTPUT -------------------- */
+    /**
+     * 読み込みメソッドのメッセージの出力先を設定します。
+     *
+     * <p>出力先を設定すると、{@code readInt(String)}などのメッセージは
+     * {@link System#out}ではなく{@code output}のバッファに書き込まれます。
+     * 読み込みメソッドは入力元からの読み込みで待機することになる直前に{@code output}をフラッシュするので、
+     * 入力を待つ前にメッセージや{@code output}に書き込んだ結果が表示されます。
+     * 入力が既に届いている間はフラッシュしないので、パイプやファイルから読み込む場合は
+     * 出力がまとめて書き込まれます。<br>
+     * 入力元が待機せずに読み込めるかを判断できない場合は、入力元から読み込むたびにフラッシュします。
+     * {@code null}を指定すると、メッセージは再び{@link System#out}に出力され、
+     * 読み込み前のフラッシュも行われなくなります。</p>
+     *
+     * <pre>
+     *     OutputPrinter out = new OutputPrinter();
+     *     InputScanner is = new InputScanner(System.in);
+     *     is.setOutput(out);
+     *     int n = is.readInt("n > ");
+     *     for (int i = 0; i {@code <} n; i++) {
+     *         out.writeLong(is.readLong() * 2);
+     *         out.println();
+     *     }
+     *     out.flush();
+     * </pre>
+     *
+     * @param output メッセージの出力先、または{@code null}
+     * @see OutputPrinter
+     * @since 1.1
+     */
+    public void setOutput(OutputPrinter output) {
+        this.output = output;
+        source.setFlushable(output);
+    }
+
+    /**
+     * メッセージとエラーメッセージを出力しないようにするかを設定します。
+     *
+     * <p>trueを設定すると、読み込みメソッドは入力を促すメッセージ、
+     * 再試行するときのエラーメッセージ、{@link #setIOErrMsg(String)}で設定したエラーメッセージの
+     * いずれも出力しなくなります。読み込みと再試行の動作は変わりません。<br>
+     * 記録した入力をファイルから流し込んで対話的なプログラムを試験する場合など、
+     * 画面に表示する必要がないときに使用します。
+     * 再試行した回数は{@link #enableMetrics()}で集計することができます。</p>
+     *
+     * @param quiet メッセージを出力しない場合はtrue
+     * @since 1.1
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+    /* ------------------------------------------------ */
+
+    /**
+     * {@link IOException}を送出したときに出力するエラーメッセージを変更します。
+     * <p>{@code InputScanner}のこのメソッドを除くすべてのメソッドは
+     * {@link IOException}を送出する恐れがあります。</p>
+     *
+     * <p>クライアントはこのメソッドを用いてエラーメッセージをセットしておくことで
+     * 実際に{@link IOException}が発生したときのエラーメッセージを任意に
+     * 設定することができます。</p>
+     *
+     * @param msg {@link IOException}を送出したときに出力するエラーメッセージ
+     * @since 1.0
+     */
+    public void setIOErrMsg(String msg) {
+        IOErrMsg = msg;
+    }
+
+    /**
+     * 正規表現を文字列で受け取るメソッドが使用する{@link PatternCache}を返却します。
+     *
+     * <p>{@link #readCheckedStr(String, String...)}や{@link #ask(String, String, String)}など、
+     * 正規表現を文字列で受け取るメソッドは、コンパイルした{@link Pattern}を
+     * すべての{@code InputScanner}で共有するこのキャッシュに保持します。<br>
+     * キャッシュのヒット数やミス数を確認する場合に使用してください。</p>
+     *
+     * @return すべての{@code InputScanner}で共有される{@link PatternCache}
+     * @since 1.1
+     */
+    public static PatternCache getPatternCache() {
+        return PATTERN_CACHE;
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package util.input;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+/* InputScannerが読み込む入力元を表すインターフェースです。
+ *
+ * 読み込んだ行やトークンは入力元が保持しているバッファを参照する
+ * CharSequenceとして返却されます。
+ * 返却されたCharSequenceは、次に同じ入力元から読み込むまでの間だけ有効です。
+ * 値を保持し続ける必要がある場合は呼び出し元でtoString()を呼び出してください。
+ */
+interface InputSource {
+    /* テキスト行を1行読み込みます。
+     * 1行の終端は改行文字 "\n"か復帰 "\r" またはその両方の
+     * 復帰と改行 "\r\n" で認識され、返却される内容に終端文字は含まれません。
+     *
+     * ストリームの終わりに達している場合はnullを返却します。
+     */
+    CharSequence readLine() throws IOException;
+
+    /* 空白文字で区切られたトークンをひとつ読み込みます。
+     * トークンは行をまたいで読み込まれ、トークン直後の区切り文字は消費されません。
+     *
+     * ストリームの終わりに達している場合はnullを返却します。
+     */
+    CharSequence readToken() throws IOException;
+
+    /* 入力元が入力を待つ前にフラッシュする出力を設定します。
+     * 対話的な入力で、バッファリングされたメッセージが入力を待つ前に表示されるようにします。
+     * 入力を待つことのない入力元では何もしません。nullを与えると解除されます。
+     */
+    default void setFlushable(Flushable output) {
+    }
+}
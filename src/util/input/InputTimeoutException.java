@@ -0,0 +1,31 @@
+package util.input;
+
+/**
+ * 制限時間付きの読み込みで、制限時間内にテキスト行が読み込めなかったときに送出される例外です。
+ *
+ * <p>時間切れになっても入力途中の行は失われず、同じ{@link InputScanner}の次の読み込みで読み込まれます。
+ * 時間切れの場合に既定値を返却する、{@code defaultValue}を受け取るメソッドも用意されています。</p>
+ *
+ * @author kazusa4418
+ * @see InputScanner#readInt(String, String, long, java.util.concurrent.TimeUnit)
+ * @since 1.1
+ */
+public class InputTimeoutException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 既定のメッセージで{@code InputTimeoutException}を作成します。
+     */
+    public InputTimeoutException() {
+        super("Input timed out");
+    }
+
+    /**
+     * 指定したメッセージで{@code InputTimeoutException}を作成します。
+     *
+     * @param errMsg 例外のメッセージ
+     */
+    public InputTimeoutException(String errMsg) {
+        super(errMsg);
+    }
+}
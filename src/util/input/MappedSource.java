@@ -0,0 +1,105 @@
+package util.input;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/* メモリーマップされたファイルから読み込む入力元です。
+ *
+ * ファイル全体を FileChannel.map でマップし、マップされた領域から直接
+ * 行やトークンを読み込みます。
+ * ヒープへのコピーや、バッファを満たすたびのreadシステムコールは発生しません。
+ *
+ * ひとつのMappedByteBufferで扱えるのは2GiB未満なので、大きなファイルは
+ * 複数のセグメントに分けてマップします。
+ * 各セグメントは改行文字の直後で区切られるので、行やトークンが
+ * セグメントをまたぐことはありません。
+ * マップした領域はチャネルを閉じた後も有効なので、チャネルは作成時に閉じられます。
+ */
+final class MappedSource extends ByteSource {
+    /* ひとつのセグメントの最大サイズ */
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private final Charset charset;
+    /* ISO-8859-1であればASCII以外のバイトもデコードせずにビューで返却する */
+    private final boolean latin1;
+    private final ByteBufferSequence view = new ByteBufferSequence();
+    private final MappedByteBuffer[] segments;
+
+    /* 現在読み込んでいるセグメント */
+    private ByteBuffer buffer;
+    /* 次に読み込むセグメントの番号 */
+    private int next;
+
+    MappedSource(Path path, Charset charset) throws IOException {
+        this.charset = charset;
+        this.latin1 = isLatin1(charset);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.segments = map(channel);
+        }
+    }
+
+    /* ファイルを改行文字の直後で区切られたセグメントに分けてマップします。 */
+    static MappedByteBuffer[] map(FileChannel channel) throws IOException {
+        List<MappedByteBuffer> list = new ArrayList<>();
+        long size = channel.size();
+        long start = 0;
+        while (start < size) {
+            long length = Math.min(MAX_SEGMENT_SIZE, size - start);
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+
+            /* 最後のセグメントでなければ、最後の改行文字の直後で区切る */
+            if (start + length < size) {
+                int end = (int) length;
+                while (end > 0 && segment.get(end - 1) != '\n') {
+                    end--;
+                }
+                if (end == 0) {
+                    throw new IOException("Line too long: exceeds " + MAX_SEGMENT_SIZE + " bytes");
+                }
+                length = end;
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+            list.add(segment);
+            start += length;
+        }
+        return list.toArray(new MappedByteBuffer[0]);
+    }
+
+    @Override
+    boolean fill() throws IOException {
+        /* セグメントは改行文字の直後で区切られているので、
+         * 未読のバイトが残った状態で呼び出されるのは最後のセグメントのみ。
+         */
+        if (pos < limit || next == segments.length) {
+            return false;
+        }
+        buffer = segments[next];
+        segments[next++] = null;
+        pos = 0;
+        limit = buffer.limit();
+        return true;
+    }
+
+    @Override
+    byte byteAt(int index) {
+        return buffer.get(index);
+    }
+
+    @Override
+    CharSequence sequence(int offset, int length, boolean ascii) {
+        if (ascii || latin1) {
+            view.set(buffer, offset, length);
+            return view;
+        }
+        ByteBuffer bytes = buffer.duplicate();
+        bytes.limit(offset + length).position(offset);
+        return charset.decode(bytes);
+    }
+}
@@ -0,0 +1,355 @@
+package util.input;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 1行にひとつの数値が書かれた大きなファイルを、複数のスレッドで並列に
+ * 構文解析してプリミティブ型の配列に読み込むユーティリティクラスです。
+ *
+ * <p>ファイルはメモリーマップされ、改行文字の直後で区切られた複数の領域に分割されます。
+ * 各領域は{@link ForkJoinPool}で並列に構文解析され、結果はファイル内の行の順序どおりに
+ * ひとつの配列に格納されます。
+ * 各領域の行数を先に数えてから構文解析するので、
+ * 領域ごとの結果を最後に連結するためのコピーは発生しません。</p>
+ *
+ * <p>各行は{@link InputScanner#readInt()}や{@link InputScanner#readLong()}と同じ規則で
+ * 構文解析されます。正負記号と先頭の0を含むことができ、範囲外の値は受け付けません。<br>
+ * 行の終端は改行文字 "\n" または復帰と改行 "\r\n" です。
+ * ファイルの最後の行の後に改行文字がなくても構いませんが、
+ * 途中に空行がある場合は構文解析できません。</p>
+ *
+ * <pre>
+ *     int[] values = NumberFileReader.readInts(Paths.get("values.txt"));
+ * </pre>
+ *
+ * @author kazusa4418
+ * @see InputScanner#open(Path)
+ * @since 1.1
+ */
+public final class NumberFileReader {
+    /* ひとつの領域の最小サイズ。小さすぎるとタスクの管理の方が高くつく */
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+    /* スレッドあたりの領域の数。領域ごとの処理時間のばらつきを均すために複数に分ける */
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    /* 配列の長さの上限 */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private NumberFileReader() {
+    }
+
+    /* 改行文字の直後で区切られたファイルの一部分 */
+    private static final class Chunk {
+        private final ByteBuffer buffer;
+        /* ファイルの先頭からのbufferの位置 (エラーメッセージ用) */
+        private final long base;
+        private final int start;
+        private final int end;
+        /* 領域に含まれる行数と、最初の行を格納する配列の位置 */
+        private int lines;
+        private int offset;
+
+        private Chunk(ByteBuffer buffer, long base, int start, int end) {
+            this.buffer = buffer;
+            this.base = base;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /* 領域の範囲 [lo, hi) を二分しながら並列に処理するタスク */
+    private abstract static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final Chunk[] chunks;
+        final int lo;
+        final int hi;
+
+        ChunkTask(Chunk[] chunks, int lo, int hi) {
+            this.chunks = chunks;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected final void compute() {
+            if (hi - lo == 1) {
+                process(chunks[lo]);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(fork(lo, mid), fork(mid, hi));
+        }
+
+        abstract ChunkTask fork(int lo, int hi);
+
+        abstract void process(Chunk chunk);
+    }
+
+    /**
+     * ファイルを読み込み、各行をint型に構文解析した配列を返却します。
+     * 構文解析は{@link ForkJoinPool#commonPool()}で行われます。
+     *
+     * @param path 読み込むファイル
+     * @exception IOException                入出力エラーが発生したとき
+     * @exception IllegalDataFormatException 行のいずれかをint型に構文解析できなかったとき
+     *
+     * @return     ファイルの各行をint型に構文解析したものを行の順に格納した配列
+     */
+    public static int[] readInts(Path path) throws IOException {
+        return readInts(path, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * ファイルを読み込み、各行をint型に構文解析した配列を返却します。
+     *
+     * @param path 読み込むファイル
+     * @param pool 構文解析を行うForkJoinPool
+     * @exception IOException                入出力エラーが発生したとき
+     * @exception IllegalDataFormatException 行のいずれかをint型に構文解析できなかったとき
+     *
+     * @return     ファイルの各行をint型に構文解析したものを行の順に格納した配列
+     */
+    public static int[] readInts(Path path, ForkJoinPool pool) throws IOException {
+        Chunk[] chunks = split(path, pool);
+        int[] values = new int[count(chunks, pool)];
+        if (chunks.length > 0) {
+            invoke(pool, new IntTask(chunks, 0, chunks.length, values));
+        }
+        return values;
+    }
+
+    /**
+     * ファイルを読み込み、各行をlong型に構文解析した配列を返却します。
+     * 構文解析は{@link ForkJoinPool#commonPool()}で行われます。
+     *
+     * @param path 読み込むファイル
+     * @exception IOException                入出力エラーが発生したとき
+     * @exception IllegalDataFormatException 行のいずれかをlong型に構文解析できなかったとき
+     *
+     * @return     ファイルの各行をlong型に構文解析したものを行の順に格納した配列
+     */
+    public static long[] readLongs(Path path) throws IOException {
+        return readLongs(path, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * ファイルを読み込み、各行をlong型に構文解析した配列を返却します。
+     *
+     * @param path 読み込むファイル
+     * @param pool 構文解析を行うForkJoinPool
+     * @exception IOException                入出力エラーが発生したとき
+     * @exception IllegalDataFormatException 行のいずれかをlong型に構文解析できなかったとき
+     *
+     * @return     ファイルの各行をlong型に構文解析したものを行の順に格納した配列
+     */
+    public static long[] readLongs(Path path, ForkJoinPool pool) throws IOException {
+        Chunk[] chunks = split(path, pool);
+        long[] values = new long[count(chunks, pool)];
+        if (chunks.length > 0) {
+            invoke(pool, new LongTask(chunks, 0, chunks.length, values));
+        }
+        return values;
+    }
+
+    /* タスクを実行し、完了するまで待ちます。
+     * 他のスレッドで送出された例外は、ForkJoinTaskが引数のないコンストラクタで作り直して
+     * 元の例外を原因に設定するので、行の位置を含むメッセージが失われる。
+     * 作り直しはタスクを待つたびに重なるので、原因をたどって元の例外を送出し直す
+     */
+    private static void invoke(ForkJoinPool pool, ChunkTask task) {
+        try {
+            pool.invoke(task);
+        }
+        catch (IllegalDataFormatException e) {
+            IllegalDataFormatException original = e;
+            while (original.getCause() instanceof IllegalDataFormatException) {
+                original = (IllegalDataFormatException) original.getCause();
+            }
+            throw original;
+        }
+    }
+
+    /* ファイルをマップし、改行文字の直後で区切られた領域に分割します。 */
+    private static Chunk[] split(Path path, ForkJoinPool pool) throws IOException {
+        MappedByteBuffer[] segments;
+        long size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+            segments = MappedSource.map(channel);
+        }
+
+        long target = size / ((long) pool.getParallelism() * CHUNKS_PER_THREAD);
+        int chunkSize = (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_CHUNK_SIZE, target));
+
+        List<Chunk> chunks = new ArrayList<>();
+        long base = 0;
+        for (MappedByteBuffer segment : segments) {
+            int limit = segment.limit();
+            int start = 0;
+            while (start < limit) {
+                int end = (int) Math.min(limit, (long) start + chunkSize);
+                /* 改行文字の直後まで領域を広げる */
+                while (end < limit && segment.get(end - 1) != '\n') {
+                    end++;
+                }
+                chunks.add(new Chunk(segment, base, start, end));
+                start = end;
+            }
+            base += limit;
+        }
+        return chunks.toArray(new Chunk[0]);
+    }
+
+    /* 各領域の行数を並列に数え、各領域の結果を格納する位置と全体の行数を求めます。 */
+    private static int count(Chunk[] chunks, ForkJoinPool pool) throws IOException {
+        if (chunks.length == 0) {
+            return 0;
+        }
+        invoke(pool, new CountTask(chunks, 0, chunks.length));
+
+        long total = 0;
+        for (Chunk chunk : chunks) {
+            if (total + chunk.lines > MAX_ARRAY_SIZE) {
+                throw new IOException("Too many lines: exceeds " + MAX_ARRAY_SIZE);
+            }
+            chunk.offset = (int) total;
+            total += chunk.lines;
+        }
+        return (int) total;
+    }
+
+    private static final class CountTask extends ChunkTask {
+        private static final long serialVersionUID = 1L;
+
+        CountTask(Chunk[] chunks, int lo, int hi) {
+            super(chunks, lo, hi);
+        }
+
+        @Override
+        ChunkTask fork(int lo, int hi) {
+            return new CountTask(chunks, lo, hi);
+        }
+
+        @Override
+        void process(Chunk chunk) {
+            ByteBuffer buffer = chunk.buffer;
+            int lines = 0;
+            for (int i = chunk.start; i < chunk.end; i++) {
+                if (buffer.get(i) == '\n') {
+                    lines++;
+                }
+            }
+            /* 改行文字で終わっていない最後の行 */
+            if (chunk.end > chunk.start && buffer.get(chunk.end - 1) != '\n') {
+                lines++;
+            }
+            chunk.lines = lines;
+        }
+    }
+
+    private static final class IntTask extends ChunkTask {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] values;
+
+        IntTask(Chunk[] chunks, int lo, int hi, int[] values) {
+            super(chunks, lo, hi);
+            this.values = values;
+        }
+
+        @Override
+        ChunkTask fork(int lo, int hi) {
+            return new IntTask(chunks, lo, hi, values);
+        }
+
+        @Override
+        void process(Chunk chunk) {
+            ByteBufferSequence view = new ByteBufferSequence();
+            view.set(chunk.buffer, chunk.start, chunk.end - chunk.start);
+            int index = chunk.offset;
+            int lineStart = 0;
+            while (lineStart < view.length()) {
+                int next = nextLine(view, lineStart);
+                int lineEnd = lineEnd(view, lineStart, next);
+                try {
+                    values[index++] = NumberParser.parseInt(view, lineStart, lineEnd);
+                }
+                catch (IllegalDataFormatException e) {
+                    throw illegalLine(chunk, lineStart);
+                }
+                lineStart = next;
+            }
+        }
+    }
+
+    private static final class LongTask extends ChunkTask {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] values;
+
+        LongTask(Chunk[] chunks, int lo, int hi, long[] values) {
+            super(chunks, lo, hi);
+            this.values = values;
+        }
+
+        @Override
+        ChunkTask fork(int lo, int hi) {
+            return new LongTask(chunks, lo, hi, values);
+        }
+
+        @Override
+        void process(Chunk chunk) {
+            ByteBufferSequence view = new ByteBufferSequence();
+            view.set(chunk.buffer, chunk.start, chunk.end - chunk.start);
+            int index = chunk.offset;
+            int lineStart = 0;
+            while (lineStart < view.length()) {
+                int next = nextLine(view, lineStart);
+                int lineEnd = lineEnd(view, lineStart, next);
+                try {
+                    values[index++] = NumberParser.parseLong(view, lineStart, lineEnd);
+                }
+                catch (IllegalDataFormatException e) {
+                    throw illegalLine(chunk, lineStart);
+                }
+                lineStart = next;
+            }
+        }
+    }
+
+    /* from から始まる行の次の行の先頭の位置を返却します。 */
+    private static int nextLine(CharSequence view, int from) {
+        int i = from;
+        while (i < view.length() && view.charAt(i) != '\n') {
+            i++;
+        }
+        return i < view.length() ? i + 1 : i;
+    }
+
+    /* 行の終端文字 "\n", "\r\n" を除いた行の終わりの位置を返却します。 */
+    private static int lineEnd(CharSequence view, int start, int next) {
+        int end = next;
+        if (end > start && view.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > start && view.charAt(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    private static IllegalDataFormatException illegalLine(Chunk chunk, int lineStart) {
+        long position = chunk.base + chunk.start + lineStart;
+        return new IllegalDataFormatException("Illegal format at byte " + position);
+    }
+}
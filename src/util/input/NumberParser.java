@@ -0,0 +1,616 @@
+package util.input;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/* 文字列からint値, long値, double値, BigInteger値, BigDecimal値, boolean値への構文解析を行うクラスです。
+ *
+ * 正負記号、先頭の0、値の範囲の検証を構文解析と同時に1回の走査で行います。
+ * 途中で文字列やリストなどのオブジェクトを生成しないため、
+ * 大量の数値行を読み込む場合でもガベージを発生させません。
+ *
+ * int値, long値として受け付ける書式は従来の正規表現 "[+-]?[0-9]+" と同じです。
+ * 先頭に任意個の0を含むことができ、"+000450"は450として解釈されます。
+ * double値として受け付ける書式は Double.parseDouble と同じです。
+ * BigInteger値の書式はlong値と同じで、BigDecimal値の書式は new BigDecimal(String) と同じです。
+ * boolean値は大文字小文字を区別しない "true" と "false" のみを受け付けます。
+ *
+ * 構文解析できない場合は IllegalDataFormatException をスローします。
+ */
+final class NumberParser {
+    /* parseDoubleBits が構文解析に失敗したことを表す値。
+     * 指数部がすべて1の非数(NaN)だが、構文解析の結果として返却される
+     * NaNは常に Double.NaN と同じビット列なので、これと重なることはない。
+     */
+    static final long INVALID_DOUBLE = 0x7ff0_dead_beef_0001L;
+
+    /* 2^53。これより小さい整数はdouble型で正確に表現できる */
+    private static final long EXACT_MANTISSA_LIMIT = 1L << 53;
+
+    /* double型で正確に表現できる10の累乗 */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+            1e21, 1e22
+    };
+
+    /* long型で表現できる10の累乗 */
+    private static final long[] LONG_POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+            100000000L, 1000000000L, 10000000000L, 100000000000L,
+            1000000000000L, 10000000000000L, 100000000000000L,
+            1000000000000000L, 10000000000000000L
+    };
+
+    /* BigInteger値への変換で、long型に累積する桁数の単位。10^18 はlong型で表現できる */
+    private static final int CHUNK_DIGITS = 18;
+    private static final BigInteger CHUNK_RADIX = BigInteger.valueOf(1_000_000_000_000_000_000L);
+    /* この桁数以下の数字列は CHUNK_DIGITS 桁ずつ順に累積する */
+    private static final int SCHOOLBOOK_DIGITS = CHUNK_DIGITS * 20;
+
+    private NumberParser() {
+    }
+
+    static int parseInt(CharSequence s) {
+        return parseInt(s, 0, s.length());
+    }
+
+    /* s の start から end の直前までをint値として構文解析します。
+     *
+     * Integer.parseInt と同様に負の値として累積していきます。
+     * 負の値の範囲は正の値の範囲より1だけ広いので、
+     * Integer.MIN_VALUE もオーバーフローせずに表現できます。
+     */
+    static int parseInt(CharSequence s, int start, int end) {
+        if (start >= end) {
+            throw new IllegalDataFormatException();
+        }
+
+        boolean negative = false;
+        int limit = -Integer.MAX_VALUE;
+        int i = start;
+
+        /* 正負記号を確認する */
+        char first = s.charAt(i);
+        if (first == '-') {
+            negative = true;
+            limit = Integer.MIN_VALUE;
+            i++;
+        }
+        else if (first == '+') {
+            i++;
+        }
+        /* 正負記号のみで構成されていれば構文解析できない */
+        if (i == end) {
+            throw new IllegalDataFormatException();
+        }
+
+        /* 1桁ずつ取り出して範囲を超えないか検証しながら累積する */
+        int multmin = limit / 10;
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalDataFormatException();
+            }
+            if (result < multmin) {
+                throw new IllegalDataFormatException();
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new IllegalDataFormatException();
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    static long parseLong(CharSequence s) {
+        return parseLong(s, 0, s.length());
+    }
+
+    /* s の start から end の直前までをlong値として構文解析します。
+     * 処理の詳細は parseInt(CharSequence, int, int) と同じです。
+     */
+    static long parseLong(CharSequence s, int start, int end) {
+        if (start >= end) {
+            throw new IllegalDataFormatException();
+        }
+
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        int i = start;
+
+        /* 正負記号を確認する */
+        char first = s.charAt(i);
+        if (first == '-') {
+            negative = true;
+            limit = Long.MIN_VALUE;
+            i++;
+        }
+        else if (first == '+') {
+            i++;
+        }
+        /* 正負記号のみで構成されていれば構文解析できない */
+        if (i == end) {
+            throw new IllegalDataFormatException();
+        }
+
+        /* 1桁ずつ取り出して範囲を超えないか検証しながら累積する */
+        long multmin = limit / 10;
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalDataFormatException();
+            }
+            if (result < multmin) {
+                throw new IllegalDataFormatException();
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw new IllegalDataFormatException();
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    static double parseDouble(CharSequence s) {
+        return parseDouble(s, 0, s.length());
+    }
+
+    /* s の start から end の直前までをdouble値として構文解析します。
+     * 受け付ける書式と結果は Double.parseDouble と同じです。
+     */
+    static double parseDouble(CharSequence s, int start, int end) {
+        long bits = parseDoubleBits(s, start, end);
+        if (bits == INVALID_DOUBLE) {
+            throw new IllegalDataFormatException();
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /* s の start から end の直前までをdouble値として構文解析し、そのビット列を返却します。
+     * 構文解析できない場合は例外をスローせずに INVALID_DOUBLE を返却します。
+     *
+     * 書式の検証と仮数部、指数部の読み取りは1回の走査で行います。
+     * 仮数部が2^53未満で10の指数が22以下であれば、仮数部と10の累乗はどちらも
+     * double型で正確に表現できるので、1回の乗算か除算で正しく丸められた値が求まります(Clingerの方法)。
+     * それ以外の場合(有効桁数が多い、指数が大きい、16進数表記など)は、
+     * 書式が正しいことを確認した上で Double.parseDouble に処理を委ねます。
+     * 書式は検証済みなので、Double.parseDouble が例外をスローすることはありません。
+     */
+    static long parseDoubleBits(CharSequence s, int start, int end) {
+        /* Double.parseDouble と同様に前後の空白文字を無視する */
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return INVALID_DOUBLE;
+        }
+
+        int i = start;
+        boolean negative = false;
+        char c = s.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+            if (i == end) {
+                return INVALID_DOUBLE;
+            }
+            c = s.charAt(i);
+        }
+
+        /* 非数と無限大 */
+        if (c == 'N') {
+            return matchesRest(s, i, end, "NaN") ? Double.doubleToRawLongBits(Double.NaN) : INVALID_DOUBLE;
+        }
+        if (c == 'I') {
+            if (!matchesRest(s, i, end, "Infinity")) {
+                return INVALID_DOUBLE;
+            }
+            return Double.doubleToRawLongBits(negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+        }
+
+        /* 16進数表記 */
+        if (c == '0' && i + 1 < end && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X')) {
+            return isHexFloat(s, i + 2, end) ? fallback(s, start, end) : INVALID_DOUBLE;
+        }
+
+        /* 10進数表記の仮数部を読み取る。有効桁は18桁までをlong型に累積する(19桁ではあふれる場合がある) */
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean truncated = false;
+
+        for (; i < end; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                break;
+            }
+            anyDigit = true;
+            if (digits < 18) {
+                if (mantissa != 0 || d != 0) {
+                    mantissa = mantissa * 10 + d;
+                    digits++;
+                }
+            }
+            else {
+                exponent++;
+                truncated |= d != 0;
+            }
+        }
+        if (i < end && s.charAt(i) == '.') {
+            for (i++; i < end; i++) {
+                int d = s.charAt(i) - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                anyDigit = true;
+                if (digits < 18) {
+                    if (mantissa != 0 || d != 0) {
+                        mantissa = mantissa * 10 + d;
+                        digits++;
+                    }
+                    exponent--;
+                }
+                else {
+                    truncated |= d != 0;
+                }
+            }
+        }
+        if (!anyDigit) {
+            return INVALID_DOUBLE;
+        }
+
+        /* 指数部を読み取る。極端に大きな指数は上限で打ち切るが、その場合は代替処理で求める */
+        if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                negativeExponent = s.charAt(i) == '-';
+                i++;
+            }
+            int e = 0;
+            int from = i;
+            for (; i < end; i++) {
+                int d = s.charAt(i) - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                if (e < 100000) {
+                    e = e * 10 + d;
+                }
+            }
+            if (i == from) {
+                return INVALID_DOUBLE;
+            }
+            exponent += negativeExponent ? -e : e;
+        }
+
+        /* 型を表す接尾辞は値に影響しない */
+        if (i < end && isTypeSuffix(s.charAt(i))) {
+            i++;
+        }
+        if (i != end) {
+            return INVALID_DOUBLE;
+        }
+
+        if (!truncated) {
+            double value;
+            if (mantissa == 0) {
+                value = 0.0;
+            }
+            else if (mantissa >= EXACT_MANTISSA_LIMIT) {
+                return fallback(s, start, end);
+            }
+            else if (exponent == 0) {
+                value = (double) mantissa;
+            }
+            else if (exponent > 0 && exponent <= 22) {
+                value = (double) mantissa * POWERS_OF_TEN[exponent];
+            }
+            else if (exponent < 0 && exponent >= -22) {
+                value = (double) mantissa / POWERS_OF_TEN[-exponent];
+            }
+            else if (exponent > 22 && exponent <= 22 + 16
+                     && mantissa < EXACT_MANTISSA_LIMIT / LONG_POWERS_OF_TEN[exponent - 22]) {
+                /* 仮数部に10の累乗を掛けても2^53未満であれば、その分だけ指数を減らせる */
+                value = (double) (mantissa * LONG_POWERS_OF_TEN[exponent - 22]) * POWERS_OF_TEN[22];
+            }
+            else {
+                return fallback(s, start, end);
+            }
+            return Double.doubleToRawLongBits(negative ? -value : value);
+        }
+        return fallback(s, start, end);
+    }
+
+    static BigInteger parseBigInteger(CharSequence s) {
+        return parseBigInteger(s, 0, s.length());
+    }
+
+    /* s の start から end の直前までをBigInteger値として構文解析します。
+     * 受け付ける書式は parseLong と同じですが、値の範囲に制限はありません。
+     */
+    static BigInteger parseBigInteger(CharSequence s, int start, int end) {
+        if (start >= end) {
+            throw new IllegalDataFormatException();
+        }
+
+        boolean negative = false;
+        int i = start;
+        char first = s.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i == end) {
+            throw new IllegalDataFormatException();
+        }
+
+        BigInteger value = digitsToBigInteger(s, i, end, new ArrayList<>());
+        return negative ? value.negate() : value;
+    }
+
+    static BigDecimal parseBigDecimal(CharSequence s) {
+        return parseBigDecimal(s, 0, s.length());
+    }
+
+    /* s の start から end の直前までをBigDecimal値として構文解析します。
+     * 受け付ける書式は new BigDecimal(String) と同じで、
+     * 整数部と小数部の数字列、指数部で構成されます("-1.5e-3", "1.", ".5"など)。
+     * 数字列は digitsToBigInteger で変換するので、桁数が非常に多くても高速に構文解析できます。
+     */
+    static BigDecimal parseBigDecimal(CharSequence s, int start, int end) {
+        if (start >= end) {
+            throw new IllegalDataFormatException();
+        }
+
+        boolean negative = false;
+        int i = start;
+        char first = s.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        int intStart = i;
+        while (i < end && isDigit(s.charAt(i))) {
+            i++;
+        }
+        int intEnd = i;
+        int fracStart = i;
+        int fracEnd = i;
+        if (i < end && s.charAt(i) == '.') {
+            fracStart = ++i;
+            while (i < end && isDigit(s.charAt(i))) {
+                i++;
+            }
+            fracEnd = i;
+        }
+        if (intStart == intEnd && fracStart == fracEnd) {
+            throw new IllegalDataFormatException();
+        }
+
+        /* 指数部を読み取る。int型の範囲を大きく超える指数は上限で打ち切り、下で範囲外として扱う */
+        long exponent = 0;
+        if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+                negativeExponent = s.charAt(i) == '-';
+                i++;
+            }
+            int from = i;
+            for (; i < end && isDigit(s.charAt(i)); i++) {
+                if (exponent < 1L << 40) {
+                    exponent = exponent * 10 + (s.charAt(i) - '0');
+                }
+            }
+            if (i == from) {
+                throw new IllegalDataFormatException();
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        if (i != end) {
+            throw new IllegalDataFormatException();
+        }
+
+        int fracDigits = fracEnd - fracStart;
+        long scale = fracDigits - exponent;
+        if (scale < Integer.MIN_VALUE || scale > Integer.MAX_VALUE) {
+            throw new IllegalDataFormatException();
+        }
+
+        List<BigInteger> powers = new ArrayList<>();
+        BigInteger unscaled;
+        if (fracDigits == 0) {
+            unscaled = digitsToBigInteger(s, intStart, intEnd, powers);
+        }
+        else if (intStart == intEnd) {
+            unscaled = digitsToBigInteger(s, fracStart, fracEnd, powers);
+        }
+        else {
+            unscaled = digitsToBigInteger(s, intStart, intEnd, powers)
+                    .multiply(BigInteger.TEN.pow(fracDigits))
+                    .add(digitsToBigInteger(s, fracStart, fracEnd, powers));
+        }
+        return new BigDecimal(negative ? unscaled.negate() : unscaled, (int) scale);
+    }
+
+    static boolean parseBoolean(CharSequence s) {
+        return parseBoolean(s, 0, s.length());
+    }
+
+    /* s の start から end の直前までを、大文字小文字を区別せずに "true" か "false" として構文解析します。
+     * 従来の正規表現 Pattern.compile("true", Pattern.CASE_INSENSITIVE) と同じく、
+     * 大文字小文字はASCII文字の範囲でのみ同一視します。
+     */
+    static boolean parseBoolean(CharSequence s, int start, int end) {
+        if (equalsIgnoreAsciiCase(s, start, end, "true")) {
+            return true;
+        }
+        if (equalsIgnoreAsciiCase(s, start, end, "false")) {
+            return false;
+        }
+        throw new IllegalDataFormatException();
+    }
+
+    /* word は小文字のASCII英字のみで構成される */
+    private static boolean equalsIgnoreAsciiCase(CharSequence s, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char c = s.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            if (c != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /* 数字のみで構成される s の start から end の直前までを、分割統治法でBigInteger値に変換します。
+     *
+     * new BigInteger(String) は数字列を先頭から1ブロックずつ累積するので、
+     * 桁数の2乗に比例する時間がかかります。
+     * ここでは下位の CHUNK_DIGITS * 2^k 桁と残りの上位の桁に分けてそれぞれを再帰的に変換し、
+     * 上位 * 10^(CHUNK_DIGITS * 2^k) + 下位 として結合します。
+     * BigInteger.multiply は大きな値に対してKaratsuba法やToom-Cook法を使用するので、
+     * 全体で桁数の2乗より小さい時間で変換できます。
+     * 10^(CHUNK_DIGITS * 2^k) は powers に k の順に保持し、同じ変換の中で再利用します。
+     */
+    private static BigInteger digitsToBigInteger(CharSequence s, int start, int end, List<BigInteger> powers) {
+        int n = end - start;
+        if (n <= SCHOOLBOOK_DIGITS) {
+            return schoolbook(s, start, end);
+        }
+        /* 下位の桁数は n 未満で最大の CHUNK_DIGITS * 2^k とする。上位の桁数はそれ以下になる */
+        int k = 0;
+        while ((long) CHUNK_DIGITS << (k + 1) < n) {
+            k++;
+        }
+        int split = end - (CHUNK_DIGITS << k);
+        BigInteger high = digitsToBigInteger(s, start, split, powers);
+        BigInteger low = digitsToBigInteger(s, split, end, powers);
+        return high.multiply(chunkPower(powers, k)).add(low);
+    }
+
+    /* 10^(CHUNK_DIGITS * 2^k) を返却します。まだ求めていなければ2乗を繰り返して求めます。 */
+    private static BigInteger chunkPower(List<BigInteger> powers, int k) {
+        if (powers.isEmpty()) {
+            powers.add(CHUNK_RADIX);
+        }
+        while (powers.size() <= k) {
+            BigInteger last = powers.get(powers.size() - 1);
+            powers.add(last.multiply(last));
+        }
+        return powers.get(k);
+    }
+
+    /* 桁数の少ない数字列を CHUNK_DIGITS 桁ずつlong型に累積しながら変換します。 */
+    private static BigInteger schoolbook(CharSequence s, int start, int end) {
+        /* 先頭のブロックを端数の桁数にして、残りをちょうど CHUNK_DIGITS 桁ずつにする */
+        int first = (end - start) % CHUNK_DIGITS;
+        if (first == 0) {
+            first = CHUNK_DIGITS;
+        }
+        BigInteger result = BigInteger.valueOf(chunk(s, start, start + first));
+        for (int i = start + first; i < end; i += CHUNK_DIGITS) {
+            result = result.multiply(CHUNK_RADIX).add(BigInteger.valueOf(chunk(s, i, i + CHUNK_DIGITS)));
+        }
+        return result;
+    }
+
+    /* CHUNK_DIGITS 桁以下の数字列をlong値に変換します。 */
+    private static long chunk(CharSequence s, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalDataFormatException();
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /* 書式を検証済みの文字列を Double.parseDouble で構文解析します。 */
+    private static long fallback(CharSequence s, int start, int end) {
+        return Double.doubleToRawLongBits(Double.parseDouble(s.subSequence(start, end).toString()));
+    }
+
+    /* s の i から end までが word と完全に一致するかどうかを返却します。 */
+    private static boolean matchesRest(CharSequence s, int i, int end, String word) {
+        if (end - i != word.length()) {
+            return false;
+        }
+        for (int k = 0; k < word.length(); k++) {
+            if (s.charAt(i + k) != word.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTypeSuffix(char c) {
+        return c == 'd' || c == 'D' || c == 'f' || c == 'F';
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    /* "0x" に続く部分が16進数表記の浮動小数点数の書式を満たしているか検証します。
+     * 16進数表記では2進数の指数部 "p" が必須です。
+     */
+    private static boolean isHexFloat(CharSequence s, int i, int end) {
+        boolean anyDigit = false;
+        for (; i < end && isHexDigit(s.charAt(i)); i++) {
+            anyDigit = true;
+        }
+        if (i < end && s.charAt(i) == '.') {
+            for (i++; i < end && isHexDigit(s.charAt(i)); i++) {
+                anyDigit = true;
+            }
+        }
+        if (!anyDigit || i == end || (s.charAt(i) != 'p' && s.charAt(i) != 'P')) {
+            return false;
+        }
+        i++;
+        if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            i++;
+        }
+        int from = i;
+        for (; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+        }
+        if (i == from) {
+            return false;
+        }
+        if (i < end && isTypeSuffix(s.charAt(i))) {
+            i++;
+        }
+        return i == end;
+    }
+}
@@ -0,0 +1,365 @@
+package util.input;
+
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+
+/**
+ * 出力をバッファリングして高速に書き込むクラスです。{@link InputScanner}と組み合わせて使用します。
+ *
+ * <p>{@link System#out}の{@link java.io.PrintStream}は呼び出しのたびに同期を取り、
+ * 改行ごとにフラッシュするので、大量の値を出力すると入力の読み込みよりも遅くなります。
+ * このクラスは出力を再利用するbyte配列のバッファに蓄え、バッファが一杯になるか
+ * {@link #flush()}が呼び出されたときにまとめて書き込みます。<br>
+ * {@link #writeInt(int)}と{@link #writeLong(long)}は数値を{@link String}に変換せず、
+ * 直接バッファに書き込みます。</p>
+ *
+ * <p>{@link InputScanner#setOutput(OutputPrinter)}で{@link InputScanner}に設定すると、
+ * 読み込みメソッドのメッセージもこのクラスに出力されます。
+ * {@link InputScanner}は入力を待つことになる直前にこのクラスをフラッシュするので、
+ * 対話的な入力でもメッセージは入力を待つ前に表示されます。
+ * 入力が既に届いている場合はフラッシュしないので、パイプやファイルから読み込む場合は
+ * 出力がまとめて書き込まれます。</p>
+ *
+ * <pre>
+ *     OutputPrinter out = new OutputPrinter();
+ *     InputScanner is = new InputScanner(System.in);
+ *     is.setOutput(out);
+ *     int n = is.readInt("n > ");
+ *     for (int i = 0; i {@code <} n; i++) {
+ *         out.writeInt(is.readInt());
+ *         out.println();
+ *     }
+ *     out.flush();
+ * </pre>
+ *
+ * <p>{@link java.io.PrintStream}と同様に、書き込みメソッドは{@link IOException}を送出しません。
+ * 書き込みに失敗したかどうかは{@link #checkError()}で確認します。<br>
+ * このクラスはスレッドセーフではありません。</p>
+ *
+ * @author kazusa4418
+ * @see InputScanner#setOutput(OutputPrinter)
+ * @since 1.1
+ */
+public final class OutputPrinter implements Flushable, Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 65536;
+    /* long値の最大桁数(符号を含む) */
+    private static final int MAX_LONG_LENGTH = 20;
+    /* writeDouble(double, int)で直接書き込める小数点以下の最大桁数 */
+    private static final int MAX_FRACTION_DIGITS = 18;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+            100000000L, 1000000000L, 10000000000L, 100000000000L,
+            1000000000000L, 10000000000000L, 100000000000000L,
+            1000000000000000L, 10000000000000000L, 100000000000000000L,
+            1000000000000000000L
+    };
+
+    private final OutputStream out;
+    private final Charset charset;
+    private final byte[] buf;
+    private final byte[] digits = new byte[MAX_LONG_LENGTH];
+    /* バッファ内の有効なバイト数 */
+    private int count;
+    private boolean error;
+
+    /**
+     * 標準出力に書き込む{@code OutputPrinter}を作成します。
+     *
+     * <p>バッファの内容は{@link System#out}を通して書き込まれるので、
+     * {@link System#out}に直接出力した内容と順序が入れ替わることはありません。
+     * ただしこのクラスのバッファに残っている内容は、{@link #flush()}を呼び出すまで書き込まれません。<br>
+     * {@link #close()}を呼び出してもフラッシュするだけで、{@link System#out}は閉じられません。</p>
+     */
+    public OutputPrinter() {
+        this(new FilterOutputStream(System.out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                /* FilterOutputStreamは1バイトずつ書き込むので、まとめて書き込む */
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                /* PrintStreamは例外を送出しないので、失敗したかどうかを確認して伝える */
+                if (((PrintStream) out).checkError()) {
+                    throw new IOException("Failed to write to System.out");
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                /* 標準出力は閉じずにフラッシュのみ行う */
+                flush();
+            }
+        });
+    }
+
+    /**
+     * バイト出力ストリームに書き込む{@code OutputPrinter}を作成します。
+     * 文字列はプラットフォームのデフォルト文字セットでエンコードされます。
+     *
+     * @param out 書き込むバイト出力ストリーム
+     */
+    public OutputPrinter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * バッファのサイズを指定して、バイト出力ストリームに書き込む{@code OutputPrinter}を作成します。
+     *
+     * @param out  書き込むバイト出力ストリーム
+     * @param size バッファのサイズ(バイト)
+     * @exception IllegalArgumentException {@code size}が{@value #MAX_LONG_LENGTH}より小さいとき
+     */
+    public OutputPrinter(OutputStream out, int size) {
+        if (out == null) {
+            throw new NullPointerException();
+        }
+        if (size < MAX_LONG_LENGTH) {
+            throw new IllegalArgumentException("Buffer size < " + MAX_LONG_LENGTH);
+        }
+        this.out = out;
+        this.charset = Charset.defaultCharset();
+        this.buf = new byte[size];
+    }
+
+    /**
+     * 文字列を書き込みます。
+     *
+     * <p>ASCII文字はそのままバッファに書き込まれ、
+     * ASCII以外の文字が続く部分のみ文字セットでエンコードされます。</p>
+     *
+     * @param s 書き込む文字列
+     */
+    public void print(CharSequence s) {
+        int len = s.length();
+        int i = 0;
+        while (i < len) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (count == buf.length) {
+                    flushBuffer();
+                }
+                buf[count++] = (byte) c;
+                i++;
+                continue;
+            }
+            /* ASCII以外の文字が続く部分をまとめてエンコードする */
+            int j = i + 1;
+            while (j < len && s.charAt(j) >= 0x80) {
+                j++;
+            }
+            write(s.subSequence(i, j).toString().getBytes(charset));
+            i = j;
+        }
+    }
+
+    /**
+     * 文字を書き込みます。
+     *
+     * @param c 書き込む文字
+     */
+    public void print(char c) {
+        if (c < 0x80) {
+            if (count == buf.length) {
+                flushBuffer();
+            }
+            buf[count++] = (byte) c;
+        }
+        else {
+            write(String.valueOf(c).getBytes(charset));
+        }
+    }
+
+    /**
+     * 改行文字 "\n" を書き込みます。
+     */
+    public void println() {
+        print('\n');
+    }
+
+    /**
+     * 文字列と改行文字 "\n" を書き込みます。
+     *
+     * @param s 書き込む文字列
+     */
+    public void println(CharSequence s) {
+        print(s);
+        print('\n');
+    }
+
+    /**
+     * int値を10進数で書き込みます。{@link String}は生成されません。
+     *
+     * @param value 書き込む値
+     */
+    public void writeInt(int value) {
+        writeLong(value);
+    }
+
+    /**
+     * long値を10進数で書き込みます。{@link String}は生成されません。
+     *
+     * @param value 書き込む値
+     */
+    public void writeLong(long value) {
+        /* Long.MIN_VALUEも扱えるように負の値として1桁ずつ取り出す */
+        long q = value < 0 ? value : -value;
+        int i = MAX_LONG_LENGTH;
+        do {
+            digits[--i] = (byte) ('0' - q % 10);
+            q /= 10;
+        } while (q != 0);
+        if (value < 0) {
+            digits[--i] = '-';
+        }
+        write(digits, i, MAX_LONG_LENGTH - i);
+    }
+
+    /**
+     * double値を{@link Double#toString(double)}と同じ形式で書き込みます。
+     *
+     * <p>このメソッドは{@link Double#toString(double)}を使用するので、{@link String}を生成します。
+     * 小数点以下の桁数が決まっている場合は{@link #writeDouble(double, int)}を使用してください。</p>
+     *
+     * @param value 書き込む値
+     */
+    public void writeDouble(double value) {
+        print(Double.toString(value));
+    }
+
+    /**
+     * double値を、小数点以下の桁数を指定した固定小数点形式で書き込みます。
+     *
+     * <p>値は指定した桁で四捨五入されます。{@code writeDouble(3.14159, 2)}は "3.14" を、
+     * {@code writeDouble(2.0, 0)}は "2" を書き込みます。<br>
+     * 値の絶対値を10の{@code fractionDigits}乗した値がlong型の範囲に収まる場合は
+     * {@link String}を生成せずに書き込みます。
+     * 四捨五入はdouble型で10の{@code fractionDigits}乗した値に対して行われるので、
+     * 2進数で正確に表現できない値では最後の桁が10進数の計算と異なることがあります。<br>
+     * それ以外の値は{@link BigDecimal}を使用して正確に書き込みます。
+     * 非数と無限大は{@link Double#toString(double)}と同じ形式で書き込みます。</p>
+     *
+     * @param value          書き込む値
+     * @param fractionDigits 小数点以下の桁数
+     * @exception IllegalArgumentException {@code fractionDigits}が負の値のとき
+     */
+    public void writeDouble(double value, int fractionDigits) {
+        if (fractionDigits < 0) {
+            throw new IllegalArgumentException("fractionDigits < 0");
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            print(Double.toString(value));
+            return;
+        }
+        double scaled = fractionDigits <= MAX_FRACTION_DIGITS
+                ? Math.abs(value) * POWERS_OF_TEN[fractionDigits] : Double.POSITIVE_INFINITY;
+        if (scaled >= 0x1p62) {
+            print(new BigDecimal(value).setScale(fractionDigits, RoundingMode.HALF_UP).toPlainString());
+            return;
+        }
+
+        long units = Math.round(scaled);
+        if (value < 0 && units != 0) {
+            print('-');
+        }
+        if (fractionDigits == 0) {
+            writeLong(units);
+            return;
+        }
+        long pow = POWERS_OF_TEN[fractionDigits];
+        writeLong(units / pow);
+        print('.');
+
+        /* 小数部を先頭の0を含めて書き込む */
+        long fraction = units % pow;
+        int i = MAX_LONG_LENGTH;
+        for (int d = 0; d < fractionDigits; d++) {
+            digits[--i] = (byte) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+        write(digits, i, MAX_LONG_LENGTH - i);
+    }
+
+    /**
+     * バッファの内容を書き込み、出力ストリームをフラッシュします。
+     */
+    @Override
+    public void flush() {
+        flushBuffer();
+        try {
+            out.flush();
+        }
+        catch (IOException e) {
+            error = true;
+        }
+    }
+
+    /**
+     * バッファの内容を書き込み、出力ストリームを閉じます。
+     * 標準出力に書き込む{@code OutputPrinter}の場合はフラッシュのみ行います。
+     */
+    @Override
+    public void close() {
+        flush();
+        try {
+            out.close();
+        }
+        catch (IOException e) {
+            error = true;
+        }
+    }
+
+    /**
+     * バッファの内容を書き込み、これまでに書き込みに失敗したことがあるかを返却します。
+     *
+     * @return 書き込みに失敗したことがあればtrue
+     */
+    public boolean checkError() {
+        flush();
+        return error;
+    }
+
+    private void write(byte[] b) {
+        write(b, 0, b.length);
+    }
+
+    private void write(byte[] b, int off, int len) {
+        if (len > buf.length - count) {
+            flushBuffer();
+            if (len > buf.length) {
+                /* バッファより大きい場合は直接書き込む */
+                try {
+                    out.write(b, off, len);
+                }
+                catch (IOException e) {
+                    error = true;
+                }
+                return;
+            }
+        }
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    private void flushBuffer() {
+        if (count == 0) {
+            return;
+        }
+        try {
+            out.write(buf, 0, count);
+        }
+        catch (IOException e) {
+            error = true;
+        }
+        count = 0;
+    }
+}
@@ -0,0 +1,193 @@
+package util.input;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 文字列で指定された正規表現をコンパイルした{@link Pattern}を保持するキャッシュです。
+ *
+ * <p>{@link InputScanner}の正規表現を文字列で受け取るメソッドは、
+ * すべてこのキャッシュを経由して{@link Pattern}を取得します。
+ * 同じ正規表現で繰り返し読み込みを行う場合でも、コンパイルは最初の一度だけで済みます。</p>
+ *
+ * <p>複数の正規表現で照合するメソッドのために、それらをひとつにまとめて
+ * コンパイルした結果も同じように保持します。</p>
+ *
+ * <p>キャッシュに保持される{@link Pattern}の数には上限があり、
+ * 上限を超えると最も長い間使用されていない{@link Pattern}から破棄されます。</p>
+ *
+ * <p>このクラスはスレッドセーフです。
+ * キャッシュの効果は{@link #getHitCount()}と{@link #getMissCount()}で確認できます。</p>
+ *
+ * @author kazusa4418
+ * @see InputScanner#getPatternCache()
+ * @since 1.1
+ */
+public final class PatternCache {
+    /* キャッシュのキー。正規表現とフラグの組み合わせで一意になる */
+    private static final class Key {
+        private final String regex;
+        private final int flags;
+
+        private Key(String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return flags == k.flags && regex.equals(k.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return regex.hashCode() * 31 + flags;
+        }
+    }
+
+    private final int capacity;
+    private final Map<Key, Pattern> patterns;
+    private final Map<List<Key>, PatternSet> sets;
+
+    private long hitCount;
+    private long missCount;
+
+    PatternCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity <= 0");
+        }
+        this.capacity = capacity;
+        /* アクセス順に並べ、上限を超えたら最も古いものを破棄する */
+        this.patterns = new LinkedHashMap<Key, Pattern>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Pattern> eldest) {
+                return size() > PatternCache.this.capacity;
+            }
+        };
+        this.sets = new LinkedHashMap<List<Key>, PatternSet>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Key>, PatternSet> eldest) {
+                return size() > PatternCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * 正規表現をコンパイルした{@link Pattern}を取得します。
+     * キャッシュに存在すればそれを返却し、存在しなければコンパイルしてキャッシュに追加します。
+     *
+     * @param regex コンパイルする正規表現
+     * @return      コンパイルされた{@link Pattern}
+     * @exception java.util.regex.PatternSyntaxException
+     *              正規表現の構文が無効な場合
+     */
+    public Pattern compile(String regex) {
+        return compile(regex, 0);
+    }
+
+    /**
+     * 正規表現を指定されたフラグでコンパイルした{@link Pattern}を取得します。
+     * キャッシュに存在すればそれを返却し、存在しなければコンパイルしてキャッシュに追加します。
+     *
+     * @param regex コンパイルする正規表現
+     * @param flags {@link Pattern#compile(String, int)}に与えるフラグ
+     * @return      コンパイルされた{@link Pattern}
+     * @exception java.util.regex.PatternSyntaxException
+     *              正規表現の構文が無効な場合
+     */
+    public synchronized Pattern compile(String regex, int flags) {
+        Key key = new Key(regex, flags);
+        Pattern p = patterns.get(key);
+        if (p != null) {
+            hitCount++;
+            return p;
+        }
+        missCount++;
+        p = Pattern.compile(regex, flags);
+        patterns.put(key, p);
+        return p;
+    }
+
+    /* 複数の正規表現をひとつにまとめたPatternSetを取得します。
+     * 各正規表現も compile(String) と同じくキャッシュから取得されます。
+     */
+    synchronized PatternSet compileSet(String... regexes) {
+        Pattern[] p = new Pattern[regexes.length];
+        for (int i = 0; i < regexes.length; i++) {
+            p[i] = compile(regexes[i], 0);
+        }
+        return compileSet(p);
+    }
+
+    /* 複数のPatternをひとつにまとめたPatternSetを取得します。
+     * Patternは正規表現とフラグが同じであれば同じものとして扱われます。
+     */
+    synchronized PatternSet compileSet(Pattern... patterns) {
+        List<Key> key = new ArrayList<>(patterns.length);
+        for (Pattern p : patterns) {
+            key.add(new Key(p.pattern(), p.flags()));
+        }
+        PatternSet set = sets.get(key);
+        if (set != null) {
+            hitCount++;
+            return set;
+        }
+        missCount++;
+        set = new PatternSet(patterns);
+        sets.put(key, set);
+        return set;
+    }
+
+    /**
+     * キャッシュに保持できる{@link Pattern}の最大数を返却します。
+     *
+     * @return キャッシュの上限
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 現在キャッシュに保持されている{@link Pattern}の数を返却します。
+     *
+     * @return 保持されている{@link Pattern}の数
+     */
+    public synchronized int size() {
+        return patterns.size() + sets.size();
+    }
+
+    /**
+     * キャッシュに存在した{@link Pattern}を返却した回数を返却します。
+     *
+     * @return キャッシュがヒットした回数
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * キャッシュに存在せず、正規表現をコンパイルした回数を返却します。
+     *
+     * @return キャッシュがミスした回数
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 保持しているすべての{@link Pattern}を破棄し、回数をリセットします。
+     */
+    public synchronized void clear() {
+        patterns.clear();
+        sets.clear();
+        hitCount = 0;
+        missCount = 0;
+    }
+}
@@ -0,0 +1,160 @@
+package util.input;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/* 複数の正規表現をひとつのPatternにまとめて、一度の照合でどれに一致したかを調べるクラスです。
+ *
+ * 各正規表現はフラグを埋め込んだうえで捕捉グループで囲まれ、
+ * 選択 "|" でつないだひとつのPatternにコンパイルされます。
+ *
+ *     "[0-9]+", "(a)(b)", "yes"(CASE_INSENSITIVE)
+ *         -> "((?:[0-9]+))|((?:(a)(b)))|((?i:yes))"
+ *
+ * 一致した選択肢は、各正規表現を囲んだ捕捉グループのうち一致したものから求めます。
+ * 選択肢は先頭から順に試されるので、複数の正規表現に一致する場合は
+ * 個別に照合した場合と同じく、最初に指定されたものが選ばれます。
+ *
+ * 後方参照や\Q...\Eの引用、コメントモードなど、ひとつにまとめると意味が変わる
+ * 正規表現が含まれる場合は、まとめずに個別に照合します。
+ */
+final class PatternSet {
+    /* まとめて照合するPattern。まとめられない場合はnull */
+    private final Pattern combined;
+    /* 各正規表現を囲んだ捕捉グループの番号 */
+    private final int[] groups;
+    /* まとめられない場合に個別に照合するPattern */
+    private final Pattern[] patterns;
+
+    PatternSet(Pattern... patterns) {
+        this.patterns = patterns.clone();
+        this.groups = new int[patterns.length];
+        this.combined = combine(this.patterns, groups);
+    }
+
+    /* 文字列全体が一致した正規表現の番号を返却します。どれにも一致しなければ-1を返却します。 */
+    int indexOf(CharSequence s) {
+        if (combined == null) {
+            for (int i = 0; i < patterns.length; i++) {
+                if (patterns[i].matcher(s).matches()) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Matcher m = combined.matcher(s);
+        if (!m.matches()) {
+            return -1;
+        }
+        for (int i = 0; i < groups.length; i++) {
+            if (m.start(groups[i]) != -1) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /* 文字列全体がいずれかの正規表現に一致すればtrueを返却します。 */
+    boolean matches(CharSequence s) {
+        return indexOf(s) != -1;
+    }
+
+    /* 正規表現を選択でつないだPatternを作成し、各選択肢の捕捉グループの番号を groups に格納します。
+     * まとめられない正規表現が含まれる場合はnullを返却します。
+     */
+    private static Pattern combine(Pattern[] patterns, int[] groups) {
+        if (patterns.length < 2) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        int group = 1;
+        for (int i = 0; i < patterns.length; i++) {
+            String flags = inlineFlags(patterns[i].flags());
+            String regex = patterns[i].pattern();
+            if (flags == null || !isCombinable(regex)) {
+                return null;
+            }
+            if ((patterns[i].flags() & Pattern.LITERAL) != 0) {
+                regex = Pattern.quote(regex);
+            }
+
+            if (i > 0) {
+                sb.append('|');
+            }
+            sb.append("((?").append(flags).append(':').append(regex).append("))");
+
+            groups[i] = group;
+            group += 1 + patterns[i].matcher("").groupCount();
+        }
+
+        try {
+            return Pattern.compile(sb.toString());
+        }
+        catch (PatternSyntaxException e) {
+            /* 名前付きグループの重複などでまとめられなかった */
+            return null;
+        }
+    }
+
+    /* Patternのフラグを埋め込みフラグの文字列に変換します。
+     * 埋め込みフラグで表現できない場合はnullを返却します。
+     */
+    private static String inlineFlags(int flags) {
+        if ((flags & (Pattern.CANON_EQ | Pattern.COMMENTS)) != 0) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0) {
+            sb.append('i');
+        }
+        if ((flags & Pattern.UNIX_LINES) != 0) {
+            sb.append('d');
+        }
+        if ((flags & Pattern.MULTILINE) != 0) {
+            sb.append('m');
+        }
+        if ((flags & Pattern.DOTALL) != 0) {
+            sb.append('s');
+        }
+        if ((flags & Pattern.UNICODE_CASE) != 0) {
+            sb.append('u');
+        }
+        if ((flags & Pattern.UNICODE_CHARACTER_CLASS) != 0) {
+            sb.append('U');
+        }
+        return sb.toString();
+    }
+
+    /* 捕捉グループで囲んで選択でつないでも意味が変わらない正規表現かどうかを検査します。
+     * 番号による後方参照はグループの番号がずれるため、\Q は閉じられていない場合に
+     * 囲んだ括弧まで引用してしまうため、埋め込みのコメントモードは括弧を
+     * コメントとして読み飛ばしてしまう恐れがあるため、まとめられません。
+     */
+    private static boolean isCombinable(String regex) {
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < regex.length()) {
+                char next = regex.charAt(++i);
+                if ((next >= '1' && next <= '9') || next == 'Q') {
+                    return false;
+                }
+            }
+            else if (c == '(' && regex.startsWith("(?", i)) {
+                /* 埋め込みフラグ (?x) や (?x:...) を探す */
+                for (int j = i + 2; j < regex.length(); j++) {
+                    char f = regex.charAt(j);
+                    if (f == 'x') {
+                        return false;
+                    }
+                    if (!Character.isLetter(f) && f != '-') {
+                        break;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,318 @@
+package util.input;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/* 別のスレッドで入力元から行を先読みする入力元です。
+ *
+ * 先読み用のデーモンスレッドが入力元から読み込んだ行を有界キューに格納し、
+ * 呼び出し元のスレッドはキューから行を取り出します。
+ * これにより、呼び出し元が数値の構文解析などを行っている間にも
+ * パイプやディスクからの読み込みが進みます。
+ *
+ * キューが一杯になると先読み用スレッドは呼び出し元が行を取り出すまで待機するので、
+ * 先読みされる行の数はキューの容量を超えません。
+ *
+ * 読み込んだ行はキューに格納する時点でStringにコピーされるので、
+ * このクラスが返却するCharSequenceは他の入力元と異なり次の読み込み後も有効です。
+ *
+ * キューには行全体が読み込まれてから格納されるので、readLine(long)が時間切れになっても
+ * 読み込み途中の行が失われることはありません。
+ *
+ * close()で先読みを終了した後は、先読み済みの行を順に返却し、それらを読み終えると
+ * 入力元から直接読み込みます。先読み用スレッドが読み込み途中だった行は、
+ * スレッドの終了を待ってから引き継ぎます。
+ */
+final class PrefetchSource implements InputSource {
+    /* 入力元の終わりを表すキューの要素 */
+    private static final Object END = new Object();
+    /* キューが一杯のときに close() を確認する間隔 */
+    private static final long CLOSE_CHECK_MILLIS = 10;
+
+    private final InputSource in;
+    /* String, IOException, ENDのいずれかを格納する */
+    private final BlockingQueue<Object> queue;
+    private final Thread thread;
+
+    /* close()が呼び出された。呼び出し元のスレッドでのみ書き込む */
+    private volatile boolean closed;
+    /* 呼び出し元が行の到着を待った回数 (書き込むのは呼び出し元のスレッドのみ) */
+    private volatile long stallCount;
+
+    /* 読み込み途中の行と次に読み込む位置 (行が残っていなければnull) */
+    private String line;
+    private int pos;
+    /* ENDを取り出した後はtrue */
+    private boolean ended;
+    /* 終了時にキューに格納できなかった要素。スレッドの終了を待ってから読む */
+    private Object pending;
+    /* 終了後に先読み済みの行をすべて読み終え、入力元から直接読み込んでいる */
+    private boolean drained;
+    /* 行の到着を待つ前にフラッシュする出力 (呼び出し元のスレッドでのみ使用する) */
+    private Flushable output;
+
+    PrefetchSource(InputSource in, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity <= 0");
+        }
+        this.in = in;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::prefetch, "InputScanner-prefetch");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void prefetch() {
+        while (!closed) {
+            Object item;
+            try {
+                CharSequence s = in.readLine();
+                item = s == null ? END : s.toString();
+            }
+            catch (IOException e) {
+                /* 直接読み込む場合と同様に、呼び出し元に送出させて再試行させる */
+                item = e;
+            }
+            if (!put(item)) {
+                /* close()による終了。読み込んだ行は失わずに呼び出し元へ引き継ぐ */
+                pending = item;
+                return;
+            }
+            if (item == END) {
+                return;
+            }
+        }
+    }
+
+    /* キューに空きができるまで待って格納します。close()が呼び出された場合は格納せずにfalseを返却します。
+     *
+     * 割り込みで待機を解除すると、入力元の読み込み中に割り込んだ場合に
+     * 割り込み可能なチャネルが閉じられてしまうので、一定時間ごとに closed を確認する
+     */
+    private boolean put(Object item) {
+        while (!closed) {
+            try {
+                if (queue.offer(item, CLOSE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            catch (InterruptedException e) {
+                /* このスレッドに割り込むことはないが、念のため確認を続ける */
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public CharSequence readLine() throws IOException {
+        if (line == null) {
+            if (closed) {
+                String s = leftoverLine();
+                return s != null || ended ? s : in.readLine();
+            }
+            return nextLine();
+        }
+        CharSequence rest = pos == 0 ? line : line.substring(pos);
+        line = null;
+        return rest;
+    }
+
+    @Override
+    public CharSequence readToken() throws IOException {
+        while (true) {
+            if (line == null) {
+                if (closed) {
+                    line = leftoverLine();
+                    if (line == null) {
+                        return ended ? null : in.readToken();
+                    }
+                }
+                else {
+                    line = nextLine();
+                }
+                pos = 0;
+                if (line == null) {
+                    return null;
+                }
+            }
+            int len = line.length();
+            while (pos < len && line.charAt(pos) <= ' ') {
+                pos++;
+            }
+            if (pos == len) {
+                /* 行の終端を読み飛ばして次の行へ */
+                line = null;
+                continue;
+            }
+            int start = pos;
+            while (pos < len && line.charAt(pos) > ' ') {
+                pos++;
+            }
+            return line.substring(start, pos);
+        }
+    }
+
+    /* テキスト行を1行読み込みます。
+     * 指定した時間が経過しても行が届かない場合はInputTimeoutExceptionを送出します。
+     * 時間切れになった場合、行は何も読み込まれていません。
+     */
+    CharSequence readLine(long nanos) throws IOException {
+        if (line != null || closed) {
+            return readLine();
+        }
+        if (ended) {
+            return null;
+        }
+        Object item = queue.poll();
+        if (item == null) {
+            stallCount++;
+            if (output != null) {
+                output.flush();
+            }
+            item = poll(nanos);
+            if (item == null) {
+                throw new InputTimeoutException();
+            }
+        }
+        return unwrap(item);
+    }
+
+    private String nextLine() throws IOException {
+        if (ended) {
+            return null;
+        }
+        Object item = queue.poll();
+        if (item == null) {
+            stallCount++;
+            if (output != null) {
+                output.flush();
+            }
+            item = take();
+        }
+        return unwrap(item);
+    }
+
+    /* 先読みを終了した後に、先読み済みの行を順に取り出します。
+     * キューが空になったら先読み用スレッドの終了を待ち、読み込み途中だった行を取り出します。
+     * 先読み済みの行が残っていなければ、以降は入力元から直接読み込むようにしてnullを返却します。
+     */
+    private String leftoverLine() throws IOException {
+        if (ended || drained) {
+            return null;
+        }
+        Object item = queue.poll();
+        if (item == null) {
+            awaitTermination();
+            item = queue.poll();
+            if (item == null) {
+                item = pending;
+                pending = null;
+            }
+            if (item == null) {
+                drained = true;
+                in.setFlushable(output);
+                return null;
+            }
+        }
+        return unwrap(item);
+    }
+
+    /* 先読み用スレッドの終了を待ちます。割り込まれても待機を続ける */
+    private void awaitTermination() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String unwrap(Object item) throws IOException {
+        if (item == END) {
+            ended = true;
+            return null;
+        }
+        if (item instanceof IOException) {
+            throw (IOException) item;
+        }
+        return (String) item;
+    }
+
+    /* 直接読み込む場合のSystem.inと同様に、割り込まれても行が届くまで待機する */
+    private Object take() {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return queue.take();
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /* take()と同様に割り込まれても待機を続けますが、指定した時間で諦めてnullを返却する */
+    private Object poll(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void setFlushable(Flushable output) {
+        this.output = output;
+        if (drained) {
+            in.setFlushable(output);
+        }
+    }
+
+    long getStallCount() {
+        return stallCount;
+    }
+
+    /* 先読みを終了し、以降の読み込みに使用する入力元を返却します。
+     * 先読み済みの行が残っていなければ入力元をそのまま返却します。
+     * 残っている場合はこのインスタンスを返却し、それらを読み終えた後は入力元から直接読み込みます。
+     */
+    InputSource close() {
+        /* 入力元の読み込み中に割り込むと割り込み可能なチャネルが閉じられてしまうので、割り込まない */
+        closed = true;
+        /* 終了したスレッドが書き込んだ pending は isAlive() の後で読むことができる */
+        if (line == null && !thread.isAlive() && queue.isEmpty() && pending == null) {
+            in.setFlushable(output);
+            return in;
+        }
+        return this;
+    }
+}
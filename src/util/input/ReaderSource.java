@@ -0,0 +1,178 @@
+package util.input;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/* 文字型入力ストリームから読み込む入力元です。
+ *
+ * BufferedReaderと同様にchar配列のバッファへまとめて読み込みますが、
+ * 行やトークンを読み込むたびにStringを生成せず、バッファを参照する
+ * CharSequenceを返却します。
+ * 行とトークンは同じバッファから読み込まれるので、両者を混在させて読み込むことができます。
+ *
+ * 1行がバッファに収まらない場合、バッファは自動的に拡張されます。
+ *
+ * closeAtEof を指定して作成すると、ストリームの終わりに達した時点でストリームを閉じます。
+ * InputScanner.open(Path, Charset) のように、自身で開いたファイルから読み込む場合に使用します。
+ */
+final class ReaderSource implements InputSource {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader in;
+    private final boolean closeAtEof;
+    private final CharArraySequence view = new CharArraySequence();
+
+    private char[] buf;
+    /* 次に読み込む位置 */
+    private int pos;
+    /* バッファ内の有効な文字数 */
+    private int limit;
+    /* 直前の行が "\r" で終わっていた場合、続く "\n" を読み飛ばす */
+    private boolean skipLF;
+    /* 入力を待つ前にフラッシュする出力 */
+    private Flushable output;
+    /* ストリームの終わりに達して閉じた */
+    private boolean closed;
+
+    ReaderSource(Reader in) {
+        this(in, DEFAULT_BUFFER_SIZE, false);
+    }
+
+    ReaderSource(Reader in, boolean closeAtEof) {
+        this(in, DEFAULT_BUFFER_SIZE, closeAtEof);
+    }
+
+    ReaderSource(Reader in, int size) {
+        this(in, size, false);
+    }
+
+    ReaderSource(Reader in, int size, boolean closeAtEof) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Buffer size <= 0");
+        }
+        this.in = in;
+        this.closeAtEof = closeAtEof;
+        this.buf = new char[size];
+    }
+
+    @Override
+    public CharSequence readLine() throws IOException {
+        if (skipLF) {
+            if (pos == limit && !fill()) {
+                return null;
+            }
+            if (buf[pos] == '\n') {
+                pos++;
+            }
+            skipLF = false;
+        }
+
+        int scan = pos;
+        while (true) {
+            for (; scan < limit; scan++) {
+                char c = buf[scan];
+                if (c == '\n' || c == '\r') {
+                    view.set(buf, pos, scan - pos);
+                    pos = scan + 1;
+                    skipLF = c == '\r';
+                    return view;
+                }
+            }
+
+            /* バッファ内に終端文字が見つからなかったので続きを読み込む */
+            int scanned = scan - pos;
+            if (!fill()) {
+                if (scanned == 0) {
+                    return null;
+                }
+                /* 終端文字のない最後の行 */
+                view.set(buf, pos, scanned);
+                pos = limit;
+                return view;
+            }
+            scan = pos + scanned;
+        }
+    }
+
+    @Override
+    public CharSequence readToken() throws IOException {
+        skipLF = false;
+
+        /* 先頭の空白文字を読み飛ばす */
+        while (true) {
+            while (pos < limit && buf[pos] <= ' ') {
+                pos++;
+            }
+            if (pos < limit) {
+                break;
+            }
+            if (!fill()) {
+                return null;
+            }
+        }
+
+        int scan = pos;
+        while (true) {
+            for (; scan < limit; scan++) {
+                if (buf[scan] <= ' ') {
+                    view.set(buf, pos, scan - pos);
+                    pos = scan;
+                    return view;
+                }
+            }
+
+            int scanned = scan - pos;
+            if (!fill()) {
+                view.set(buf, pos, scanned);
+                pos = limit;
+                return view;
+            }
+            scan = pos + scanned;
+        }
+    }
+
+    @Override
+    public void setFlushable(Flushable output) {
+        this.output = output;
+    }
+
+    /* 未読の文字をバッファの先頭に詰めてから続きを読み込みます。
+     * バッファに空きがなければ2倍に拡張します。
+     * ストリームの終わりに達していればfalseを返却します。
+     */
+    private boolean fill() throws IOException {
+        if (closed) {
+            return false;
+        }
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        if (limit == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+
+        /* 入力を待つことになる場合のみフラッシュする */
+        if (output != null && !in.ready()) {
+            output.flush();
+        }
+
+        int n;
+        do {
+            n = in.read(buf, limit, buf.length - limit);
+        } while (n == 0);
+
+        if (n < 0) {
+            if (closeAtEof) {
+                closed = true;
+                in.close();
+            }
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+}
@@ -0,0 +1,236 @@
+package util.input;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 区切り文字で区切られたレコードを、列の型に従って構文解析しながら読み込むクラスです。
+ *
+ * <p>{@link InputScanner}から1行ずつ読み込み、各列を指定された{@link ColumnType}に
+ * 従って1回の走査で構文解析します。
+ * 読み込んだ行から部分文字列は生成されず、結果は再利用される{@link Row}に格納されるので、
+ * 何百万行のレコードでも一定のメモリで処理することができます。</p>
+ *
+ * <p>各列の構文解析の規則は{@link InputScanner}の対応する読み込みメソッドと同じです。
+ * 前後の空白文字は取り除かれないので、{@code "1, 2"}の2列目はINT型として構文解析できません。<br>
+ * 列は二重引用符 '"' で囲むことができ、囲まれた列には区切り文字を含めることができます。
+ * 囲まれた列の中の二重引用符は {@code ""} と2つ続けて記述します。
+ * 二重引用符で囲まれた列が複数の行にまたがることはできません。</p>
+ *
+ * <pre>
+ *     InputScanner is = new InputScanner(System.in);
+ *     RecordReader rr = new RecordReader(is, ',',
+ *             ColumnType.INT, ColumnType.STRING, ColumnType.DOUBLE);
+ *     is.readLine();    // 見出し行を読み飛ばす
+ *     while (rr.next()) {
+ *         Row row = rr.row();
+ *         total += row.getDouble(2);
+ *     }
+ * </pre>
+ *
+ * <p>行の列の数がスキーマと異なる場合や、列を構文解析できなかった場合は
+ * {@link IllegalDataFormatException}が送出されます。
+ * その行は読み込まれた後なので、続けて{@link #next()}を呼び出すと次の行から読み込みます。</p>
+ *
+ * @author kazusa4418
+ * @see ColumnType
+ * @see Row
+ * @since 1.1
+ */
+public final class RecordReader {
+    private static final char QUOTE = '"';
+
+    private final InputScanner scanner;
+    private final char delimiter;
+    private final ColumnType[] types;
+    private final Row row;
+
+    /* 読み込んだ行数 (エラーメッセージ用) */
+    private long lineNumber;
+
+    /**
+     * 与えられた{@link InputScanner}から、指定した型の列で構成されるレコードを読み込む
+     * {@code RecordReader}を作成します。
+     *
+     * @param scanner   読み込みに使用する{@link InputScanner}
+     * @param delimiter 列を区切る文字
+     * @param types     各列の型
+     * @exception IllegalArgumentException 区切り文字が二重引用符のとき、
+     *                                     または列がひとつも指定されていないとき
+     */
+    public RecordReader(InputScanner scanner, char delimiter, ColumnType... types) {
+        if (scanner == null) {
+            throw new NullPointerException();
+        }
+        if (delimiter == QUOTE) {
+            throw new IllegalArgumentException("Delimiter must not be a quote");
+        }
+        if (types.length == 0) {
+            throw new IllegalArgumentException("No columns");
+        }
+        this.scanner = scanner;
+        this.delimiter = delimiter;
+        this.types = types.clone();
+        for (ColumnType type : this.types) {
+            if (type == null) {
+                throw new NullPointerException();
+            }
+        }
+        this.row = new Row(this.types);
+    }
+
+    /**
+     * 次の行を読み込み、{@link #row()}の内容をその行のレコードで置き換えます。
+     *
+     * @exception IllegalDataFormatException
+     *            行の列の数が異なるか、列のいずれかを構文解析できなかったとき
+     *
+     * @return    レコードを読み込んだ場合はtrue、入力の終わりに達している場合はfalse
+     */
+    public boolean next() {
+        CharSequence line = scanner.readLine();
+        if (line == null) {
+            return false;
+        }
+        lineNumber++;
+
+        int len = line.length();
+        int i = 0;
+        for (int column = 0; column < types.length; column++) {
+            if (column > 0) {
+                if (i == len || line.charAt(i) != delimiter) {
+                    throw illegal(column, "missing column");
+                }
+                i++;
+            }
+
+            int start;
+            int end;
+            boolean escaped = false;
+            if (i < len && line.charAt(i) == QUOTE) {
+                /* 閉じる二重引用符を探す。"" は二重引用符1文字を表す */
+                start = i + 1;
+                end = start;
+                while (true) {
+                    if (end == len) {
+                        throw illegal(column, "unclosed quote");
+                    }
+                    if (line.charAt(end) == QUOTE) {
+                        if (end + 1 < len && line.charAt(end + 1) == QUOTE) {
+                            escaped = true;
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    end++;
+                }
+                i = end + 1;
+            }
+            else {
+                start = i;
+                while (i < len && line.charAt(i) != delimiter) {
+                    i++;
+                }
+                end = i;
+            }
+
+            try {
+                store(column, line, start, end, escaped);
+            }
+            catch (IllegalDataFormatException e) {
+                throw illegal(column, "not " + types[column]);
+            }
+        }
+        if (i != len) {
+            throw illegal(types.length, "too many columns");
+        }
+        return true;
+    }
+
+    private void store(int column, CharSequence line, int start, int end, boolean escaped) {
+        switch (types[column]) {
+            case INT:
+                row.setLong(column, NumberParser.parseInt(line, start, end));
+                break;
+            case LONG:
+                row.setLong(column, NumberParser.parseLong(line, start, end));
+                break;
+            case DOUBLE:
+                /* parseDouble は Double.parseDouble と同じく前後の空白文字を取り除くので、ここで拒否する */
+                if (start < end && (line.charAt(start) <= ' ' || line.charAt(end - 1) <= ' ')) {
+                    throw new IllegalDataFormatException();
+                }
+                row.setDouble(column, NumberParser.parseDouble(line, start, end));
+                break;
+            case BOOLEAN:
+                row.setLong(column, NumberParser.parseBoolean(line, start, end) ? 1 : 0);
+                break;
+            default: {
+                StringBuilder text = row.text(column);
+                text.setLength(0);
+                if (!escaped) {
+                    text.append(line, start, end);
+                    break;
+                }
+                for (int i = start; i < end; i++) {
+                    char c = line.charAt(i);
+                    text.append(c);
+                    if (c == QUOTE) {
+                        /* "" の2文字目を読み飛ばす */
+                        i++;
+                    }
+                }
+                break;
+            }
+        }
+    }
+
+    /* readBoolean()と同じく "true" か "false" に大文字小文字を区別せずに一致するか検査します。 */
+    private IllegalDataFormatException illegal(int column, String reason) {
+        return new IllegalDataFormatException("line " + lineNumber + ", column " + column + ": " + reason);
+    }
+
+    /**
+     * 最後に読み込んだレコードを返却します。
+     *
+     * <p>返却される{@link Row}はこの{@code RecordReader}でひとつだけ作成され、
+     * {@link #next()}を呼び出すたびに内容が書き換わります。</p>
+     *
+     * @return 最後に読み込んだレコード
+     */
+    public Row row() {
+        return row;
+    }
+
+    /**
+     * 残りのレコードを順に読み込むストリームを返却します。
+     *
+     * <p>レコードはストリームの要素が要求されるたびに1行ずつ読み込まれます。
+     * ストリームの要素はすべて同じ{@link Row}であり、次の要素が読み込まれると
+     * 内容が書き換わるので、要素を保持する場合は必要な値を取り出してください。</p>
+     *
+     * <pre>
+     *     double total = rr.rows().mapToDouble(r {@code ->} r.getDouble(2)).sum();
+     * </pre>
+     *
+     * @return 残りのレコードを読み込むストリーム
+     */
+    public Stream<Row> rows() {
+        Spliterator<Row> it = new Spliterators.AbstractSpliterator<Row>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Row> action) {
+                if (!next()) {
+                    return false;
+                }
+                action.accept(row);
+                return true;
+            }
+        };
+        return StreamSupport.stream(it, false);
+    }
+}
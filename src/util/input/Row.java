@@ -0,0 +1,185 @@
+package util.input;
+
+/**
+ * {@link RecordReader}が読み込んだ1行分のレコードです。
+ *
+ * <p>このオブジェクトは{@link RecordReader}ごとにひとつだけ作成され、
+ * {@link RecordReader#next()}を呼び出すたびに次の行の内容で上書きされます。
+ * 数値や真偽値の列はプリミティブ型の配列に格納されるので、
+ * 何百万行のレコードを読み込んでもボクシングや新しいオブジェクトの生成は発生しません。<br>
+ * 文字列の列は再利用される{@link StringBuilder}に格納されます。
+ * {@link #getText(int)}は{@link String}を生成しませんが、
+ * {@link #getString(int)}は呼び出すたびに{@link String}を生成します。</p>
+ *
+ * <p>列の番号は0から始まります。
+ * 列の型と異なる型で値を取得しようとすると{@link IllegalStateException}が送出されます。</p>
+ *
+ * @author kazusa4418
+ * @see RecordReader
+ * @since 1.1
+ */
+public final class Row {
+    private final ColumnType[] types;
+    /* INT, LONG, BOOLEAN(0か1)の列の値 */
+    private final long[] longs;
+    /* DOUBLEの列の値 */
+    private final double[] doubles;
+    /* STRINGの列の値 */
+    private final StringBuilder[] texts;
+
+    Row(ColumnType[] types) {
+        this.types = types;
+        this.longs = new long[types.length];
+        this.doubles = new double[types.length];
+        this.texts = new StringBuilder[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == ColumnType.STRING) {
+                texts[i] = new StringBuilder();
+            }
+        }
+    }
+
+    /**
+     * レコードの列の数を返却します。
+     *
+     * @return 列の数
+     */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * 列の型を返却します。
+     *
+     * @param column 列の番号
+     * @return       列の型
+     */
+    public ColumnType getType(int column) {
+        return types[column];
+    }
+
+    /**
+     * INT型の列の値を返却します。
+     *
+     * @param column 列の番号
+     * @exception IllegalStateException 列の型がINTではないとき
+     *
+     * @return       列の値
+     */
+    public int getInt(int column) {
+        check(column, ColumnType.INT);
+        return (int) longs[column];
+    }
+
+    /**
+     * LONG型の列の値を返却します。
+     *
+     * @param column 列の番号
+     * @exception IllegalStateException 列の型がLONGではないとき
+     *
+     * @return       列の値
+     */
+    public long getLong(int column) {
+        check(column, ColumnType.LONG);
+        return longs[column];
+    }
+
+    /**
+     * DOUBLE型の列の値を返却します。
+     *
+     * @param column 列の番号
+     * @exception IllegalStateException 列の型がDOUBLEではないとき
+     *
+     * @return       列の値
+     */
+    public double getDouble(int column) {
+        check(column, ColumnType.DOUBLE);
+        return doubles[column];
+    }
+
+    /**
+     * BOOLEAN型の列の値を返却します。
+     *
+     * @param column 列の番号
+     * @exception IllegalStateException 列の型がBOOLEANではないとき
+     *
+     * @return       列の値
+     */
+    public boolean getBoolean(int column) {
+        check(column, ColumnType.BOOLEAN);
+        return longs[column] != 0;
+    }
+
+    /**
+     * STRING型の列の値を参照する{@link CharSequence}を返却します。
+     *
+     * <p>返却される{@link CharSequence}は、次に{@link RecordReader#next()}を
+     * 呼び出すと内容が書き換わります。</p>
+     *
+     * @param column 列の番号
+     * @exception IllegalStateException 列の型がSTRINGではないとき
+     *
+     * @return       列の値を参照するCharSequence
+     */
+    public CharSequence getText(int column) {
+        check(column, ColumnType.STRING);
+        return texts[column];
+    }
+
+    /**
+     * STRING型の列の値を返却します。
+     *
+     * @param column 列の番号
+     * @exception IllegalStateException 列の型がSTRINGではないとき
+     *
+     * @return       列の値
+     */
+    public String getString(int column) {
+        check(column, ColumnType.STRING);
+        return texts[column].toString();
+    }
+
+    void setLong(int column, long value) {
+        longs[column] = value;
+    }
+
+    void setDouble(int column, double value) {
+        doubles[column] = value;
+    }
+
+    StringBuilder text(int column) {
+        return texts[column];
+    }
+
+    private void check(int column, ColumnType type) {
+        if (types[column] != type) {
+            throw new IllegalStateException("Column " + column + " is " + types[column] + ", not " + type);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            switch (types[i]) {
+                case INT:
+                case LONG:
+                    sb.append(longs[i]);
+                    break;
+                case DOUBLE:
+                    sb.append(doubles[i]);
+                    break;
+                case BOOLEAN:
+                    sb.append(longs[i] != 0);
+                    break;
+                default:
+                    sb.append(texts[i]);
+                    break;
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
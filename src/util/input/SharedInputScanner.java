@@ -0,0 +1,252 @@
+package util.input;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 複数のスレッドから同時に読み込むことができるテキストスキャナーです。
+ *
+ * <p>{@link InputScanner}はスレッドセーフではないので、
+ * ひとつの入力を複数のスレッドで分担して処理することができません。
+ * このクラスは専用の読み込み用スレッドが入力元から行を読み込み、
+ * 読み込みメソッドを呼び出した各スレッドにテキスト行をひとつずつ受け渡します。<br>
+ * 各テキスト行は必ずひとつのスレッドだけに、ちょうど一度だけ渡されます。
+ * 行の受け渡しにはロックフリーのキューを使用しているので、
+ * 読み込むスレッドを増やしても単一のロックを奪い合うことはなく、
+ * 構文解析の処理はスレッド数に応じて並列に行われます。</p>
+ *
+ * <p>読み込まれたテキスト行のうち、まだどのスレッドにも渡されていない行の数は
+ * コンストラクタで指定した容量を超えません。
+ * 容量に達すると読み込み用スレッドはテキスト行が受け取られるまで待機します。</p>
+ *
+ * <p>複数のスレッドから読み込む場合、どのテキスト行をどのスレッドが受け取るかは
+ * 決まっていません。行の順序に意味がある入力の場合は{@link InputScanner}を使用してください。<br>
+ * また、メッセージの出力は他のスレッドの出力と混ざってしまうので、
+ * このクラスの読み込みメソッドはメッセージを出力しません。</p>
+ *
+ * <pre>
+ *     SharedInputScanner sis = new SharedInputScanner(System.in);
+ *     ExecutorService pool = Executors.newFixedThreadPool(4);
+ *     for (int t = 0; t {@code <} 4; t++) {
+ *         pool.execute(() {@code ->} {
+ *             String line;
+ *             while ((line = sis.readStr()) != null) {
+ *                 process(line);
+ *             }
+ *         });
+ *     }
+ * </pre>
+ *
+ * @author kazusa4418
+ * @see InputScanner
+ * @since 1.1
+ */
+public final class SharedInputScanner implements AutoCloseable {
+    /* 入力元の終わりを表すキューの要素 */
+    private static final Object END = new Object();
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final InputSource source;
+    /* StringかENDを格納する */
+    private final LinkedTransferQueue<Object> queue = new LinkedTransferQueue<>();
+    /* キューに格納できる残りの行数 */
+    private final Semaphore space;
+    private final Thread thread;
+
+    private volatile boolean closed;
+
+    /* IOErrorが発生したときに表示されるエラーメッセージ */
+    private volatile String IOErrMsg = "IOError : try again.";
+
+    /**
+     * 与えられたバイト型入力ストリームから読み込む{@code SharedInputScanner}を作成します。
+     * バイトは既定の文字セットで文字に変換されます。
+     *
+     * @param in 読み込むバイト型入力ストリーム
+     */
+    public SharedInputScanner(InputStream in) {
+        this(in, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 与えられたバイト型入力ストリームから読み込む{@code SharedInputScanner}を作成します。
+     *
+     * @param in       読み込むバイト型入力ストリーム
+     * @param capacity まだ受け取られていないテキスト行を保持する最大数
+     * @exception IllegalArgumentException {@code capacity}が0以下のとき
+     */
+    public SharedInputScanner(InputStream in, int capacity) {
+        this(InputScanner.textSource(in, Charset.defaultCharset()), capacity);
+    }
+
+    /**
+     * 与えられた文字型入力ストリームから読み込む{@code SharedInputScanner}を作成します。
+     *
+     * @param reader 読み込む文字型入力ストリーム
+     */
+    public SharedInputScanner(Reader reader) {
+        this(reader, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 与えられた文字型入力ストリームから読み込む{@code SharedInputScanner}を作成します。
+     *
+     * @param reader   読み込む文字型入力ストリーム
+     * @param capacity まだ受け取られていないテキスト行を保持する最大数
+     * @exception IllegalArgumentException {@code capacity}が0以下のとき
+     */
+    public SharedInputScanner(Reader reader, int capacity) {
+        this(new ReaderSource(reader), capacity);
+    }
+
+    private SharedInputScanner(InputSource source, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity <= 0");
+        }
+        this.source = source;
+        this.space = new Semaphore(capacity);
+        this.thread = new Thread(this::produce, "SharedInputScanner-reader");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void produce() {
+        try {
+            while (!closed) {
+                space.acquire();
+                CharSequence line;
+                try {
+                    line = source.readLine();
+                }
+                catch (IOException e) {
+                    if (closed) {
+                        /* close()の割り込みで中断された */
+                        break;
+                    }
+                    System.err.println(IOErrMsg);
+                    space.release();
+                    continue;
+                }
+                if (line == null) {
+                    break;
+                }
+                queue.put(line.toString());
+            }
+        }
+        catch (InterruptedException e) {
+            /* close()による終了 */
+        }
+        queue.put(END);
+    }
+
+    /**
+     * テキスト行を読み込みます。
+     *
+     * <p>テキスト行が読み込まれるまで呼び出したスレッドは待機します。
+     * 複数のスレッドが同時に待機している場合、各スレッドはそれぞれ異なる行を受け取ります。</p>
+     *
+     * @return 行の内容を含む文字列、ただし行の終端文字は含まれない。
+     *         入力の終わりに達している場合はnull
+     */
+    public String readStr() {
+        Object item = take();
+        if (item == END) {
+            /* 他の待機しているスレッドにも入力の終わりを伝える */
+            queue.put(END);
+            return null;
+        }
+        space.release();
+        return (String) item;
+    }
+
+    /**
+     * テキスト行を読み込み、それをint型として解釈します。
+     *
+     * <p>構文解析の規則は{@link InputScanner#readInt()}と同じです。
+     * 構文解析できなかった場合、そのテキスト行は呼び出したスレッドが受け取ったまま失われます。</p>
+     *
+     * @exception IllegalDataFormatException
+     *            読み込んだテキスト行をint型に構文解析できなかったとき
+     *
+     * @return    終端文字を除く行の内容をint型に構文解析したもの
+     */
+    public int readInt() {
+        return NumberParser.parseInt(readStr());
+    }
+
+    /**
+     * テキスト行を読み込み、それをlong型として解釈します。
+     *
+     * <p>構文解析の規則は{@link InputScanner#readLong()}と同じです。</p>
+     *
+     * @exception IllegalDataFormatException
+     *            読み込んだテキスト行をlong型に構文解析できなかったとき
+     *
+     * @return    終端文字を除く行の内容をlong型に構文解析したもの
+     */
+    public long readLong() {
+        return NumberParser.parseLong(readStr());
+    }
+
+    /**
+     * テキスト行を読み込み、それをdouble型として解釈します。
+     *
+     * <p>構文解析の規則は{@link InputScanner#readDouble()}と同じです。</p>
+     *
+     * @exception IllegalDataFormatException
+     *            読み込んだテキスト行をdouble型に構文解析できなかったとき
+     *
+     * @return    終端文字を除く行の内容をdouble型に構文解析したもの
+     */
+    public double readDouble() {
+        return NumberParser.parseDouble(readStr());
+    }
+
+    /* 割り込まれても行が届くまで待機する */
+    private Object take() {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return queue.take();
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * {@link IOException}を送出したときに出力するエラーメッセージを変更します。
+     *
+     * @param msg {@link IOException}を送出したときに出力するエラーメッセージ
+     */
+    public void setIOErrMsg(String msg) {
+        IOErrMsg = msg;
+    }
+
+    /**
+     * 読み込み用スレッドを終了します。
+     *
+     * <p>既に読み込まれているテキスト行は引き続き受け取ることができ、
+     * それらをすべて受け取った後は入力の終わりに達した状態になります。
+     * 読み込み用スレッドが入力元からの読み込みで待機している場合は、
+     * その読み込みが完了した時点で終了します。</p>
+     */
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,90 @@
+package util.input;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/* バイト入力ストリームから読み込む入力元です。
+ *
+ * InputStreamReaderによるデコードを経由せず、再利用するbyte配列のバッファへ
+ * まとめて読み込みます。
+ * 1行がバッファに収まらない場合、バッファは自動的に拡張されます。
+ */
+final class StreamSource extends ByteSource {
+    private static final int DEFAULT_BUFFER_SIZE = 65536;
+
+    private final InputStream in;
+    private final Charset charset;
+    /* ISO-8859-1であればASCII以外のバイトもデコードせずにビューで返却する */
+    private final boolean latin1;
+    private final ByteArraySequence view = new ByteArraySequence();
+
+    private byte[] array;
+    /* 入力を待つ前にフラッシュする出力 */
+    private Flushable output;
+
+    StreamSource(InputStream in, Charset charset) {
+        this(in, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    StreamSource(InputStream in, Charset charset, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Buffer size <= 0");
+        }
+        this.in = in;
+        this.charset = charset;
+        this.latin1 = isLatin1(charset);
+        this.array = new byte[size];
+    }
+
+    @Override
+    public void setFlushable(Flushable output) {
+        this.output = output;
+    }
+
+    @Override
+    boolean fill() throws IOException {
+        /* 未読のバイトをバッファの先頭に詰める */
+        if (pos > 0) {
+            System.arraycopy(array, pos, array, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        /* バッファに空きがなければ2倍に拡張する */
+        if (limit == array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+
+        /* 入力を待つことになる場合のみフラッシュする */
+        if (output != null && in.available() == 0) {
+            output.flush();
+        }
+
+        int n;
+        do {
+            n = in.read(array, limit, array.length - limit);
+        } while (n == 0);
+
+        if (n < 0) {
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    @Override
+    byte byteAt(int index) {
+        return array[index];
+    }
+
+    @Override
+    CharSequence sequence(int offset, int length, boolean ascii) {
+        if (ascii || latin1) {
+            view.set(array, offset, length);
+            return view;
+        }
+        return new String(array, offset, length, charset);
+    }
+}
@@ -0,0 +1,176 @@
+package util.input;
+
+import java.util.Arrays;
+
+/**
+ * {@link InputScanner}が読み込んだ文字列の正規のインスタンスを保持する、上限付きの表です。
+ *
+ * <p>{@link InputScanner#enableInterning(int)}で有効にすると、{@link InputScanner#readStr()}や
+ * {@link InputScanner#readCheckedStr(String, String...)}などの文字列を返却するメソッドは、
+ * 読み込んだ行の内容から{@link String}を生成する前にこの表を検索します。
+ * 同じ内容の文字列が表にあればそのインスタンスを返却し、なければ生成した文字列を表に追加します。<br>
+ * 少数の決まったコマンドが何度も入力される場合、文字列の生成を省くことができ、
+ * 返却された文字列を{@code ==}で比較することもできます。</p>
+ *
+ * <p>表に保持される文字列の数には上限があり、上限に達した後は既存の文字列を置き換えます。
+ * 置き換えられた文字列と同じ内容の行を再び読み込むと新しいインスタンスが生成されるので、
+ * {@code ==}で比較する場合は、入力される文字列の種類よりも十分に大きな上限を指定してください。
+ * {@value #MAX_LENGTH}文字を超える行は表に追加されません。</p>
+ *
+ * <p>このクラスはスレッドセーフではありません。
+ * 読み込みを行うスレッド以外から{@link #getHitCount()}などで取得した値には、
+ * 直前の数回の読み込みが反映されていないことがあります。</p>
+ *
+ * <pre>
+ *     InputScanner is = new InputScanner();
+ *     StringInternTable table = is.enableInterning(1024);
+ *     String quit = table.intern("quit");    // 比較に使う文字列をあらかじめ表に追加する
+ *     String command = is.readStr();
+ *     if (command == quit) { ... }
+ *     System.out.println(table.getHitRate());
+ * </pre>
+ *
+ * @author kazusa4418
+ * @see InputScanner#enableInterning(int)
+ * @since 1.1
+ */
+public final class StringInternTable {
+    /**
+     * 表に追加される文字列の最大の長さです。
+     * 長い行は同じ内容が繰り返される見込みが低く、比較の負担が大きいので対象にしません。
+     */
+    public static final int MAX_LENGTH = 256;
+
+    /* 文字列を探す位置の数。空きがなければこの範囲内の位置を置き換える */
+    private static final int MAX_PROBES = 4;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final String[] strings;
+    /* strings の各位置にある文字列のハッシュ値。内容を比較する前に一致を確認する */
+    private final int[] hashes;
+    private final int mask;
+
+    private int size;
+    private long hitCount;
+    private long missCount;
+
+    StringInternTable(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity <= 0");
+        }
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity > " + MAX_CAPACITY);
+        }
+        /* 2の累乗に切り上げ、ハッシュ値から位置をビット演算で求められるようにする */
+        int slots = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.strings = new String[slots];
+        this.hashes = new int[slots];
+        this.mask = slots - 1;
+    }
+
+    /**
+     * 文字列の内容と等しい、表に保持されている文字列を返却します。
+     *
+     * <p>表に等しい文字列がなければ、{@code s}の内容から{@link String}を生成して表に追加し、それを返却します。
+     * ハッシュ値は{@code s}から直接求められるので、表に等しい文字列があれば{@link String}は生成されません。<br>
+     * {@code s}が{@value #MAX_LENGTH}文字を超える場合は、表に追加せずに生成した{@link String}を返却します。</p>
+     *
+     * @param s 文字列
+     * @return  {@code s}と等しい内容の文字列
+     */
+    public String intern(CharSequence s) {
+        int len = s.length();
+        if (len > MAX_LENGTH) {
+            missCount++;
+            return s.toString();
+        }
+
+        /* String.hashCode() と同じ計算で、String を生成せずにハッシュ値を求める */
+        int h = 0;
+        for (int i = 0; i < len; i++) {
+            h = 31 * h + s.charAt(i);
+        }
+        int home = (h ^ (h >>> 16)) & mask;
+
+        for (int p = 0; p < MAX_PROBES; p++) {
+            int i = (home + p) & mask;
+            String e = strings[i];
+            if (e == null) {
+                size++;
+                return add(i, h, s);
+            }
+            if (hashes[i] == h && e.contentEquals(s)) {
+                hitCount++;
+                return e;
+            }
+        }
+        /* 空きがなければ探した範囲の中から置き換える位置を順に変えて選ぶ */
+        return add((home + (int) (missCount % MAX_PROBES)) & mask, h, s);
+    }
+
+    private String add(int index, int hash, CharSequence s) {
+        missCount++;
+        String str = s.toString();
+        strings[index] = str;
+        hashes[index] = hash;
+        return str;
+    }
+
+    /**
+     * 表に保持できる文字列の最大数を返却します。
+     * 作成時に指定した上限を2の累乗に切り上げた値です。
+     *
+     * @return 表の上限
+     */
+    public int capacity() {
+        return strings.length;
+    }
+
+    /**
+     * 現在表に保持されている文字列の数を返却します。
+     *
+     * @return 保持されている文字列の数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 表に保持されている文字列を返却した回数を返却します。
+     *
+     * @return 表がヒットした回数
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 表に等しい文字列がなく、新しく文字列を生成した回数を返却します。
+     *
+     * @return 表がミスした回数
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 表を検索した回数に対するヒットした回数の割合を返却します。
+     * 一度も検索していない場合は0.0を返却します。
+     *
+     * @return 0.0から1.0までのヒット率
+     */
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * 保持しているすべての文字列を破棄し、回数をリセットします。
+     */
+    public void clear() {
+        Arrays.fill(strings, null);
+        size = 0;
+        hitCount = 0;
+        missCount = 0;
+    }
+}
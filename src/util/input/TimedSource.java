@@ -0,0 +1,181 @@
+package util.input;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/* 制限時間付きの読み込みを行う入力元です。
+ *
+ * readLine(long)が呼び出されるたびに1行だけを読み込むスレッドを開始し、
+ * 呼び出し元はその結果を制限時間まで待ちます。スレッドは1行読み込むと終了するので、
+ * PrefetchSourceと異なり、依頼されていない行を先に読み込むことはなく、
+ * 制限時間付きの読み込みが終わった後にスレッドが残り続けることもありません。
+ *
+ * 時間切れになった場合、スレッドは読み込み途中の行が届くまで残り、
+ * その行は次の読み込みで返却されます。
+ * 読み込みを依頼していない間は、呼び出し元のスレッドで入力元から直接読み込みます。
+ */
+final class TimedSource implements InputSource {
+    /* 入力元の終わりを表す結果 */
+    private static final Object END = new Object();
+
+    private final InputSource in;
+    /* String, IOException, ENDのいずれかを格納する */
+    private final BlockingQueue<Object> result = new ArrayBlockingQueue<>(1);
+
+    /* 読み込みを依頼したスレッド。依頼していなければnull */
+    private Thread reader;
+    /* トークンを読み込み途中の行と次に読み込む位置 (行が残っていなければnull) */
+    private String line;
+    private int pos;
+    /* 入力を待つ前にフラッシュする出力 (呼び出し元のスレッドでのみ使用する) */
+    private Flushable output;
+
+    TimedSource(InputSource in) {
+        this.in = in;
+    }
+
+    /* テキスト行を1行読み込みます。
+     * 指定した時間が経過しても行が届かない場合はInputTimeoutExceptionを送出します。
+     * 時間切れになった場合、読み込み途中の行は次の読み込みで返却されます。
+     */
+    CharSequence readLine(long nanos) throws IOException {
+        if (line != null) {
+            return readLine();
+        }
+        if (reader == null) {
+            if (output != null) {
+                output.flush();
+            }
+            /* スレッドから出力をフラッシュしないように、読み込み中は入力元の出力を外す */
+            in.setFlushable(null);
+            reader = new Thread(this::read, "InputScanner-timed-read");
+            reader.setDaemon(true);
+            reader.start();
+        }
+        Object item = poll(nanos);
+        if (item == null) {
+            throw new InputTimeoutException();
+        }
+        return unwrap(item);
+    }
+
+    private void read() {
+        Object item;
+        try {
+            CharSequence s = in.readLine();
+            item = s == null ? END : s.toString();
+        }
+        catch (IOException e) {
+            /* 直接読み込む場合と同様に、呼び出し元に送出させて再試行させる */
+            item = e;
+        }
+        result.offer(item);
+    }
+
+    @Override
+    public CharSequence readLine() throws IOException {
+        if (line != null) {
+            CharSequence rest = pos == 0 ? line : line.substring(pos);
+            line = null;
+            return rest;
+        }
+        if (reader != null) {
+            return unwrap(take());
+        }
+        return in.readLine();
+    }
+
+    @Override
+    public CharSequence readToken() throws IOException {
+        while (line == null) {
+            if (reader == null) {
+                return in.readToken();
+            }
+            String s = unwrap(take());
+            if (s == null) {
+                return null;
+            }
+            line = s;
+            pos = 0;
+        }
+        int len = line.length();
+        while (pos < len && line.charAt(pos) <= ' ') {
+            pos++;
+        }
+        if (pos == len) {
+            /* 行の終端を読み飛ばし、続きは入力元から読み込む */
+            line = null;
+            return readToken();
+        }
+        int start = pos;
+        while (pos < len && line.charAt(pos) > ' ') {
+            pos++;
+        }
+        return line.substring(start, pos);
+    }
+
+    /* スレッドの結果を受け取り、入力元を呼び出し元のスレッドで読み込める状態に戻します。 */
+    private String unwrap(Object item) throws IOException {
+        reader = null;
+        in.setFlushable(output);
+        if (item == END) {
+            return null;
+        }
+        if (item instanceof IOException) {
+            throw (IOException) item;
+        }
+        return (String) item;
+    }
+
+    /* 直接読み込む場合のSystem.inと同様に、割り込まれても行が届くまで待機する */
+    private Object take() {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return result.take();
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /* take()と同様に割り込まれても待機を続けますが、指定した時間で諦めてnullを返却する */
+    private Object poll(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return result.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void setFlushable(Flushable output) {
+        this.output = output;
+        if (reader == null) {
+            in.setFlushable(output);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package util.menu;
 
-import util.checker.Checker;
+import util.checker.NumberValidator;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -31,11 +31,13 @@ public class Menu {
 
     private int input() throws IOException {
         BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
+        NumberValidator validator = NumberValidator.of(items.size() + 1);
         while(true) {
             System.out.print("> ");
             String input = br.readLine();
-            if (Checker.numberCheck(input, items.size() + 1))
-                return Integer.parseInt(input);
+            int no = validator.parse(input);
+            if (no != NumberValidator.INVALID)
+                return no;
             System.out.println("入力が間違っています。");
         }
     }
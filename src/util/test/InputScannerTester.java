@@ -4,18 +4,90 @@ import util.input.InputScanner;
 
 import java.util.regex.Pattern;
 
-/* tester : InputScanner */
+/* tester : InputScanner
+ *
+ * 各テストは与えられたInputScannerから読み込み、項目の開始と結果をListenerに通知します。
+ * mainでは標準入力から対話的に読み込み、結果を標準出力に表示します。
+ * ReplayDriverは記録した入力ファイルを流し込み、結果を記録します。
+ */
 
 public class InputScannerTester {
-    private static final InputScanner is = new InputScanner();
+    /* 実行できるテストの名前 */
+    static final String[] SUITES = {"string", "int", "long", "char", "double", "boolean"};
+
+    /* テストの開始、各項目の開始と結果を受け取るリスナー */
+    interface Listener {
+        void suite(String name);
+
+        void step(String name);
+
+        void result(Object value);
+    }
+
+    /* 標準出力に表示するリスナー */
+    private static final Listener CONSOLE = new Listener() {
+        @Override
+        public void suite(String name) {
+            System.out.println("---- " + name + " TEST ----");
+        }
+
+        @Override
+        public void step(String name) {
+            System.out.println("==========" + name + "==========");
+        }
+
+        @Override
+        public void result(Object value) {
+            System.out.println("結果は" + value + "でした");
+        }
+    };
+
+    private final InputScanner is;
+    private final Listener listener;
+
+    public InputScannerTester(InputScanner is) {
+        this(is, CONSOLE);
+    }
+
+    InputScannerTester(InputScanner is, Listener listener) {
+        this.is = is;
+        this.listener = listener;
+    }
 
     public static void main(String[] args) {
+        InputScanner is = new InputScanner();
         is.setIOErrMsg("IOError: error");
-        booleanInputTest();
+        new InputScannerTester(is).booleanInputTest();
+    }
+
+    /* 名前を指定してテストを実行します。 */
+    void run(String suite) {
+        switch (suite) {
+            case "string":
+                stringInputTest();
+                break;
+            case "int":
+                intInputTest();
+                break;
+            case "long":
+                longInputTest();
+                break;
+            case "char":
+                charInputTest();
+                break;
+            case "double":
+                doubleInputTest();
+                break;
+            case "boolean":
+                booleanInputTest();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown suite: " + suite);
+        }
     }
 
-    private static void stringInputTest() {
-        System.out.println("---- STRING INPUT TEST ----");
+    void stringInputTest() {
+        listener.suite("STRING INPUT");
 
         writeLine("readStr()test");
         String s = is.readStr();
@@ -42,8 +114,8 @@ public class InputScannerTester {
         result(s5);
     }
 
-    private static void intInputTest() {
-        System.out.println("---- INTEGER INPUT TEST ----");
+    void intInputTest() {
+        listener.suite("INTEGER INPUT");
 
         writeLine("readInt()test");
         int i1 = is.readInt();
@@ -66,8 +138,8 @@ public class InputScannerTester {
         result(i5);
     }
 
-    private static void longInputTest() {
-        System.out.println("---- LONG INPUT TEST ----");
+    void longInputTest() {
+        listener.suite("LONG INPUT");
 
         writeLine("readLong()test");
         long l1 = is.readLong();
@@ -90,8 +162,8 @@ public class InputScannerTester {
         result(l5);
     }
 
-    private static void charInputTest() {
-        System.out.println("---- CHARACTER INPUT TEST ----");
+    void charInputTest() {
+        listener.suite("CHARACTER INPUT");
 
         writeLine("readChar()test");
         char c1 = is.readChar();
@@ -115,8 +187,8 @@ public class InputScannerTester {
         result(c5);
     }
 
-    private static void doubleInputTest() {
-        System.out.println("---- DOUBLE INPUT TEST ----");
+    void doubleInputTest() {
+        listener.suite("DOUBLE INPUT");
 
         writeLine("readDouble()test");
         double d1 = is.readDouble();
@@ -140,8 +212,8 @@ public class InputScannerTester {
         result(d5);
     }
 
-    private static void booleanInputTest() {
-        System.out.println("---- BOOLEAN INPUT TEST ----");
+    void booleanInputTest() {
+        listener.suite("BOOLEAN INPUT");
 
         writeLine("readBoolean()test");
         boolean b1 = is.readBoolean();
@@ -193,11 +265,11 @@ public class InputScannerTester {
         result(b12);
     }
 
-    private static void writeLine(String msg) {
-        System.out.println("==========" + msg + "==========");
+    private void writeLine(String msg) {
+        listener.step(msg);
     }
 
-    private static void result(Object msg) {
-        System.out.println("結果は" + msg + "でした");
+    private void result(Object msg) {
+        listener.result(msg);
     }
 }
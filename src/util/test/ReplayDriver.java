@@ -0,0 +1,180 @@
+package util.test;
+
+import util.input.InputMetrics;
+import util.input.InputScanner;
+import util.input.OutputPrinter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/* replay : InputScannerTester
+ *
+ * 記録した入力ファイル(セッション)をInputScannerTesterのテストに流し込み、
+ * 対話的な操作なしで最後まで実行します。
+ * メッセージは出力せず待機もしないので、入力ファイルの読み込み速度で実行されます。
+ *
+ * 各項目で返却された値と再試行の回数を1行ずつ記録し、最後に読み込んだ行数と
+ * 1秒あたりの行数を表示します。
+ * 期待する記録を -expect で与えると記録と比較し、異なる場合は終了コード1で終了します。
+ *
+ * usage: java util.test.ReplayDriver <session> [-repeat N] [-expect transcript] [suite ...]
+ *        suite : string, int, long, char, double, boolean (省略時はすべて)
+ *
+ * セッションはUTF-8で1行にひとつの入力を記録したテキストファイルです。
+ * 記録の各行は "テスト名<TAB>項目名<TAB>値<TAB>retries=再試行回数" です。
+ * -repeat を指定すると同じセッションを繰り返して負荷を測定します。記録は最初の1回分のみです。
+ * 引数が正しくない場合は使い方を表示し、終了コード2で終了します。
+ */
+
+public class ReplayDriver {
+    /* 各項目の結果を記録するリスナー */
+    private static final class Recorder implements InputScannerTester.Listener {
+        private final InputMetrics metrics;
+        private final List<String> transcript = new ArrayList<>();
+        private String suite = "";
+        private String step = "";
+        /* 項目の開始時点の再試行回数 */
+        private long retries;
+
+        private Recorder(InputMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void suite(String name) {
+            suite = name;
+        }
+
+        @Override
+        public void step(String name) {
+            step = name;
+            retries = metrics.getRetries();
+        }
+
+        @Override
+        public void result(Object value) {
+            transcript.add(suite + "\t" + step + "\t" + value + "\tretries=" + (metrics.getRetries() - retries));
+        }
+    }
+
+    private static final String USAGE =
+            "usage: java util.test.ReplayDriver <session> [-repeat N] [-expect transcript] [suite ...]";
+
+    /* 引数の誤りを表示して終了します */
+    private static void usage(String error) {
+        if (error != null) {
+            System.err.println(error);
+        }
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+
+    /* オプションの値を返却します。値がなければ終了します */
+    private static String value(String[] args, int i) {
+        if (i == args.length) {
+            usage("missing value for " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            usage(null);
+        }
+        Path session = Paths.get(args[0]);
+        int repeat = 1;
+        Path expect = null;
+        List<String> suites = new ArrayList<>();
+        List<String> known = Arrays.asList(InputScannerTester.SUITES);
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("-repeat")) {
+                String value = value(args, ++i);
+                try {
+                    repeat = Integer.parseInt(value);
+                }
+                catch (NumberFormatException e) {
+                    usage("-repeat is not a number: " + value);
+                }
+                if (repeat <= 0) {
+                    usage("-repeat must be positive: " + value);
+                }
+            }
+            else if (args[i].equals("-expect")) {
+                expect = Paths.get(value(args, ++i));
+            }
+            else if (known.contains(args[i])) {
+                suites.add(args[i]);
+            }
+            else {
+                usage("unknown suite: " + args[i] + " (expected one of " + known + ")");
+            }
+        }
+        if (suites.isEmpty()) {
+            for (String suite : InputScannerTester.SUITES) {
+                suites.add(suite);
+            }
+        }
+
+        List<String> transcript = null;
+        long lines = 0;
+        long retries = 0;
+        long elapsed = 0;
+        for (int r = 0; r < repeat; r++) {
+            InputScanner is = InputScanner.open(session, StandardCharsets.UTF_8);
+            is.setQuiet(true);
+            InputMetrics metrics = is.enableMetrics();
+            Recorder recorder = new Recorder(metrics);
+            InputScannerTester tester = new InputScannerTester(is, recorder);
+
+            long start = System.nanoTime();
+            try {
+                for (String suite : suites) {
+                    tester.run(suite);
+                }
+            }
+            catch (RuntimeException e) {
+                /* 入力の終わりに達したか、例外を送出する読み込みメソッドが失敗した */
+                recorder.transcript.add(recorder.suite + "\t" + recorder.step + "\t!" + e);
+            }
+            elapsed += System.nanoTime() - start;
+            lines += metrics.getLinesRead();
+            retries += metrics.getRetries();
+            if (transcript == null) {
+                transcript = recorder.transcript;
+            }
+        }
+
+        OutputPrinter out = new OutputPrinter();
+        for (String line : transcript) {
+            out.println(line);
+        }
+        double seconds = elapsed / 1e9;
+        out.println("# runs=" + repeat + " lines=" + lines + " retries=" + retries
+                    + " seconds=" + seconds + " lines/sec=" + (seconds == 0 ? 0 : (long) (lines / seconds)));
+        out.flush();
+
+        if (expect != null) {
+            /* 以前の実行の出力をそのまま期待する記録として使えるように、集計の行は比較しない */
+            List<String> expected = new ArrayList<>();
+            for (String line : Files.readAllLines(expect, StandardCharsets.UTF_8)) {
+                if (!line.startsWith("#")) {
+                    expected.add(line);
+                }
+            }
+            for (int i = 0; i < Math.max(expected.size(), transcript.size()); i++) {
+                String e = i < expected.size() ? expected.get(i) : "(none)";
+                String a = i < transcript.size() ? transcript.get(i) : "(none)";
+                if (!e.equals(a)) {
+                    System.err.println("mismatch at line " + (i + 1) + ": expected [" + e + "] but was [" + a + "]");
+                    System.exit(1);
+                }
+            }
+        }
+    }
+}